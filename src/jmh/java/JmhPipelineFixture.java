@@ -0,0 +1,185 @@
+import benchmark.PipelineFixture;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Default-package side of benchmark.PipelineFixture; see the comment there.
+public class JmhPipelineFixture implements PipelineFixture {
+    private AdvancedNewsClassifier classifier;
+    private final List<String> htmlDocuments = new ArrayList<>();
+    private final List<ArticlesEmbedding> corpus = new ArrayList<>();
+    private Vector[] vectors;
+
+    private AdvancedNewsClassifier classifier() throws IOException {
+        if (classifier == null) {
+            classifier = new AdvancedNewsClassifier();
+        }
+        return classifier;
+    }
+
+    @Override
+    public Object loadGlove() throws IOException {
+        Toolkit toolkit = new Toolkit();
+        toolkit.loadGlove();
+        return toolkit.getListVocabulary();
+    }
+
+    @Override
+    public void prepareCorpus(int _corpusSize, boolean _preprocess) throws Exception {
+        List<ArticlesEmbedding> sources = classifier().getArticleEmbeddings();
+        if (_preprocess) {
+            classifier.preprocessArticles(classifier.preprocessThreads);
+            classifier.embeddingSize = classifier.calculateEmbeddingSize(sources);
+        }
+        List<String> sourceHtml = readNewsHtml();
+        htmlDocuments.clear();
+        corpus.clear();
+        for (int i = 0; i < _corpusSize; i++) {
+            htmlDocuments.add(sourceHtml.get(i % sourceHtml.size()));
+            ArticlesEmbedding source = sources.get(i % sources.size());
+            corpus.add(_preprocess ? source.copyPreprocessed() : source);
+        }
+    }
+
+    private static List<String> readNewsHtml() throws Exception {
+        URL newsUrl = JmhPipelineFixture.class.getClassLoader().getResource("News");
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get(newsUrl.toURI()))) {
+            for (Path file : stream) {
+                if (Toolkit.isNewsFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort(null);
+        List<String> html = new ArrayList<>(files.size());
+        for (Path file : files) {
+            html.add(new String(Files.readAllBytes(file)));
+        }
+        return html;
+    }
+
+    @Override
+    public int corpusSize() {
+        return corpus.size();
+    }
+
+    @Override
+    public Object parseHtml(int _document) {
+        String html = htmlDocuments.get(_document);
+        return new NewsArticles(HtmlParser.getNewsTitle(html), HtmlParser.getNewsContent(html),
+                HtmlParser.getDataType(html), HtmlParser.getLabel(html));
+    }
+
+    @Override
+    public Object extractHtml(int _document) {
+        return HtmlExtractor.extract(htmlDocuments.get(_document));
+    }
+
+    @Override
+    public String cleanText(int _document) {
+        return ArticlesEmbedding.textCleaning(corpus.get(_document).getRawContent());
+    }
+
+    @Override
+    public String[] normaliseTokens(int _document) {
+        return TextNormalizer.tokenize(TextNormalizer.clean(corpus.get(_document).getRawContent()));
+    }
+
+    @Override
+    public String[] legacyNormaliseTokens(int _document) {
+        StringBuilder sbContent = new StringBuilder();
+        for (char c : corpus.get(_document).getRawContent().toLowerCase().toCharArray()) {
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || Character.isWhitespace(c)) {
+                sbContent.append(c);
+            }
+        }
+        return sbContent.toString().trim().split("\\s+");
+    }
+
+    @Override
+    public String processText(int _document) {
+        ArticlesEmbedding article = corpus.get(_document);
+        return article.processingText(ArticlesEmbedding.textCleaning(article.getRawContent()), Toolkit.STOPWORD_FILTER);
+    }
+
+    @Override
+    public Object embed(int _document) throws Exception {
+        ArticlesEmbedding article = corpus.get(_document).copyPreprocessed();
+        article.setEmbeddingSize(classifier.embeddingSize);
+        return article.getEmbedding();
+    }
+
+    @Override
+    public int calculateEmbeddingSize() {
+        return classifier.calculateEmbeddingSize(corpus);
+    }
+
+    @Override
+    public void trainModel() throws Exception {
+        classifier().preprocessArticles(classifier.preprocessThreads);
+        classifier.embeddingSize = classifier.calculateEmbeddingSize(classifier.getArticleEmbeddings());
+        classifier.populateEmbedding();
+        classifier.setNeuralNetwork(classifier.buildNeuralNetwork(2));
+        for (ArticlesEmbedding article : corpus) {
+            article.setEmbeddingSize(classifier.embeddingSize);
+            article.getEmbedding(); // predictions below measure inference, not embedding
+        }
+    }
+
+    @Override
+    public Object predictSingle() throws Exception {
+        List<Integer> results = new ArrayList<>();
+        for (ArticlesEmbedding article : corpus) {
+            if (article.getNewsType() == NewsArticles.DataType.Testing) {
+                results.add(classifier.predictBatch(List.of(article))[0]);
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public Object predictBatched(int _batchSize) throws Exception {
+        return classifier.predictResult(corpus, _batchSize);
+    }
+
+    @Override
+    public void prepareVectors(int _count, int _dimension, long _seed) {
+        Random random = new Random(_seed);
+        vectors = new Vector[_count];
+        for (int i = 0; i < _count; i++) {
+            double[] elements = new double[_dimension];
+            for (int j = 0; j < _dimension; j++) {
+                elements[j] = random.nextGaussian();
+            }
+            vectors[i] = new Vector(elements);
+        }
+    }
+
+    @Override
+    public double cosineSimilarity(int _first, int _second) {
+        return vectors[_first].cosineSimilarity(vectors[_second]);
+    }
+
+    @Override
+    public double dotProduct(int _first, int _second) {
+        return vectors[_first].dotProduct(vectors[_second]);
+    }
+
+    @Override
+    public double fusedCosineSimilarity(int _first, int _second) {
+        return VectorMath.cosineSimilarity(vectors[_first].getAllElements(), vectors[_second].getAllElements());
+    }
+
+    @Override
+    public double fusedDotProduct(int _first, int _second) {
+        return VectorMath.dotProduct(vectors[_first].getAllElements(), vectors[_second].getAllElements());
+    }
+}
@@ -0,0 +1,48 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Stages after CoreNLP: median sizing and per-document embedding over already processed text
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmbeddingBenchmark {
+    @Param({"32", "256", "2048"})
+    public int corpusSize;
+
+    private PipelineFixture fixture;
+
+    @Setup
+    public void setUp() throws Exception {
+        fixture = PipelineFixture.create();
+        fixture.prepareCorpus(corpusSize, true);
+    }
+
+    @Benchmark
+    public int calculateEmbeddingSize() {
+        return fixture.calculateEmbeddingSize();
+    }
+
+    @Benchmark
+    public void getEmbedding(Blackhole _blackhole) throws Exception {
+        for (int i = 0; i < corpusSize; i++) {
+            _blackhole.consume(fixture.embed(i));
+        }
+    }
+}
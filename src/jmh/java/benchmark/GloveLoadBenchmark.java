@@ -0,0 +1,36 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Cold-ish load of the bundled vocabulary (binary store when present, CSV otherwise). The input is the
+// fixed resource file, so unlike the other stages this one has no corpus-size parameter.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class GloveLoadBenchmark {
+    private PipelineFixture fixture;
+
+    @Setup
+    public void setUp() throws Exception {
+        fixture = PipelineFixture.create();
+    }
+
+    @Benchmark
+    public Object loadGlove() throws Exception {
+        return fixture.loadGlove();
+    }
+}
@@ -0,0 +1,50 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Field extraction from in-memory HTML: the four HtmlParser getters vs the single-pass HtmlExtractor
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HtmlParsingBenchmark {
+    @Param({"32", "256", "2048"})
+    public int corpusSize;
+
+    private PipelineFixture fixture;
+
+    @Setup
+    public void setUp() throws Exception {
+        fixture = PipelineFixture.create();
+        fixture.prepareCorpus(corpusSize, false);
+    }
+
+    @Benchmark
+    public void htmlParser(Blackhole _blackhole) {
+        for (int i = 0; i < corpusSize; i++) {
+            _blackhole.consume(fixture.parseHtml(i));
+        }
+    }
+
+    @Benchmark
+    public void htmlExtractor(Blackhole _blackhole) {
+        for (int i = 0; i < corpusSize; i++) {
+            _blackhole.consume(fixture.extractHtml(i));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package benchmark;
+
+import java.io.IOException;
+
+// The pipeline classes live in the default package, which named packages cannot import, and JMH refuses
+// to generate benchmarks for default-package classes. Benchmarks therefore drive the pipeline through
+// this interface; JmhPipelineFixture (default package) implements it with direct calls, so each stage
+// is a single monomorphic interface call away from the code being measured.
+public interface PipelineFixture {
+    static PipelineFixture create() throws ReflectiveOperationException {
+        return (PipelineFixture) Class.forName("JmhPipelineFixture").getDeclaredConstructor().newInstance();
+    }
+
+    // Toolkit.loadGlove on a fresh Toolkit
+    Object loadGlove() throws IOException;
+
+    // Builds a corpus of _corpusSize documents by cycling through the News resources; with
+    // _preprocess the CoreNLP stage is run once up front so later stages start from processed text
+    void prepareCorpus(int _corpusSize, boolean _preprocess) throws Exception;
+
+    int corpusSize();
+
+    Object parseHtml(int _document);
+
+    Object extractHtml(int _document);
+
+    String cleanText(int _document);
+
+    // TextNormalizer.clean then tokenize, and the lowercase/filter/regex-split chain it replaced
+    String[] normaliseTokens(int _document);
+
+    String[] legacyNormaliseTokens(int _document);
+
+    String processText(int _document);
+
+    // Document embedding from an untouched copy of a preprocessed article, so every call does the full lookup
+    Object embed(int _document) throws Exception;
+
+    int calculateEmbeddingSize();
+
+    // Trains the classifier once on the News training articles (same settings as AdvancedNewsClassifier.main)
+    void trainModel() throws Exception;
+
+    // One forward pass per testing article, as before batched inference
+    Object predictSingle() throws Exception;
+
+    Object predictBatched(int _batchSize) throws Exception;
+
+    void prepareVectors(int _count, int _dimension, long _seed);
+
+    double cosineSimilarity(int _first, int _second);
+
+    double dotProduct(int _first, int _second);
+
+    // VectorMath kernels over the same vectors
+    double fusedCosineSimilarity(int _first, int _second);
+
+    double fusedDotProduct(int _first, int _second);
+}
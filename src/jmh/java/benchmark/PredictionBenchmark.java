@@ -0,0 +1,50 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Inference over the testing articles of the corpus: one forward pass per article vs predictResult batching.
+// Embeddings are computed during setup, so only the network is measured.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PredictionBenchmark {
+    @Param({"32", "256", "2048"})
+    public int corpusSize;
+
+    @Param({"256"})
+    public int batchSize;
+
+    private PipelineFixture fixture;
+
+    @Setup
+    public void setUp() throws Exception {
+        fixture = PipelineFixture.create();
+        fixture.prepareCorpus(corpusSize, true);
+        fixture.trainModel();
+    }
+
+    @Benchmark
+    public Object predictSingle() throws Exception {
+        return fixture.predictSingle();
+    }
+
+    @Benchmark
+    public Object predictBatched() throws Exception {
+        return fixture.predictBatched(batchSize);
+    }
+}
@@ -0,0 +1,65 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// ArticlesEmbedding.textCleaning alone, clean + tokenize against the legacy chain, and cleaning plus CoreNLP
+// lemmatisation/stopword removal
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextProcessingBenchmark {
+    @Param({"8", "32", "128"})
+    public int corpusSize;
+
+    private PipelineFixture fixture;
+
+    @Setup
+    public void setUp() throws Exception {
+        fixture = PipelineFixture.create();
+        fixture.prepareCorpus(corpusSize, false);
+    }
+
+    @Benchmark
+    public void textCleaning(Blackhole _blackhole) {
+        for (int i = 0; i < corpusSize; i++) {
+            _blackhole.consume(fixture.cleanText(i));
+        }
+    }
+
+    @Benchmark
+    public void normaliseTokens(Blackhole _blackhole) {
+        for (int i = 0; i < corpusSize; i++) {
+            _blackhole.consume(fixture.normaliseTokens(i));
+        }
+    }
+
+    @Benchmark
+    public void legacyNormaliseTokens(Blackhole _blackhole) {
+        for (int i = 0; i < corpusSize; i++) {
+            _blackhole.consume(fixture.legacyNormaliseTokens(i));
+        }
+    }
+
+    @Benchmark
+    public void processingText(Blackhole _blackhole) {
+        for (int i = 0; i < corpusSize; i++) {
+            _blackhole.consume(fixture.processText(i));
+        }
+    }
+}
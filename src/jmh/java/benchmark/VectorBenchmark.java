@@ -0,0 +1,67 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Similarity of each vector against its neighbour, over corpusSize GloVe-width vectors: Vector vs VectorMath
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int corpusSize;
+
+    @Param({"50"})
+    public int dimension;
+
+    private PipelineFixture fixture;
+
+    @Setup
+    public void setUp() throws Exception {
+        fixture = PipelineFixture.create();
+        fixture.prepareVectors(corpusSize, dimension, 42);
+    }
+
+    @Benchmark
+    public void cosineSimilarity(Blackhole _blackhole) {
+        for (int i = 1; i < corpusSize; i++) {
+            _blackhole.consume(fixture.cosineSimilarity(i - 1, i));
+        }
+    }
+
+    @Benchmark
+    public void dotProduct(Blackhole _blackhole) {
+        for (int i = 1; i < corpusSize; i++) {
+            _blackhole.consume(fixture.dotProduct(i - 1, i));
+        }
+    }
+
+    @Benchmark
+    public void vectorMathCosineSimilarity(Blackhole _blackhole) {
+        for (int i = 1; i < corpusSize; i++) {
+            _blackhole.consume(fixture.fusedCosineSimilarity(i - 1, i));
+        }
+    }
+
+    @Benchmark
+    public void vectorMathDotProduct(Blackhole _blackhole) {
+        for (int i = 1; i < corpusSize; i++) {
+            _blackhole.consume(fixture.fusedDotProduct(i - 1, i));
+        }
+    }
+}
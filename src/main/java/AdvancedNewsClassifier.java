@@ -1,5 +1,4 @@
 import org.apache.commons.lang3.time.StopWatch;
-import org.deeplearning4j.datasets.iterator.utilty.ListDataSetIterator;
 import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
 import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
 import org.deeplearning4j.nn.conf.WorkspaceMode;
@@ -8,6 +7,7 @@ import org.deeplearning4j.nn.conf.layers.OutputLayer;
 import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
 import org.deeplearning4j.nn.weights.WeightInit;
 import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.buffer.DataType;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.dataset.DataSet;
 import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
@@ -15,135 +15,400 @@ import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.learning.config.Adam;
 import org.nd4j.linalg.lossfunctions.LossFunctions;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
 
 public class AdvancedNewsClassifier {
     private Toolkit toolkit = null;
-    private static List<NewsArticles> newsArticles = null;
-    private static Map<String, Glove> gloveMap = null; // O(1) lookup optimization
+    private ClassifierContext context = null; // replaced, never mutated: see setContext
+    private List<NewsArticles> newsArticles = null;
     private List<ArticlesEmbedding> articleEmbeddings = null;
+    private INDArray featureMatrix = null;
     private MultiLayerNetwork neuralNetwork = null;
+    private EmbeddingCache embeddingCache = null;
 
     public final int BATCHSIZE = 10;
+    public static final int PREFETCH_BATCHES = 4;
+    public static final long EMBEDDING_CACHE_BYTES = 512L * 1024 * 1024;
+    // Shared with ParallelTrainer and IncrementalTrainer so every training path lands in one metric
+    static final Metrics.Timer TRAIN_EPOCH_TIMER = Metrics.getGlobal().timer("train_epoch", "One pass over the training set");
+    private static final Metrics.Timer PREDICT_TIMER = Metrics.getGlobal().timer("predict_batch", "Forward pass for a batch of articles");
+    private static final Metrics.Counter PREDICTED = Metrics.getGlobal().counter("predicted_articles", "Articles classified");
+    public int predictBatchSize = 256;
+    public int preprocessThreads = Runtime.getRuntime().availableProcessors();
 
     public int embeddingSize = 0;
-    private static StopWatch mySW = new StopWatch();
+    private EmbeddingSizeEstimator sizeEstimator = null;
 
+    // Shares the JVM-wide default vocabulary (ClassifierContext.getDefault()) instead of loading its own
     public AdvancedNewsClassifier() throws IOException {
+        this(ClassifierContext.getDefault());
+    }
+
+    // Everything this classifier reads lives in _context and its own fields, so any number of classifiers
+    // can be used concurrently in one JVM. The bundled News corpus is only read on first use (see
+    // getArticleEmbeddings), so serving and shard workers, which classify their own input, never parse it.
+    public AdvancedNewsClassifier(ClassifierContext _context) {
         toolkit = new Toolkit();
-        toolkit.loadGlove();
-        newsArticles = toolkit.loadNews();
-        createGloveMap();
-        articleEmbeddings = loadData();
+        context = _context;
     }
 
+    // Usage: AdvancedNewsClassifier [--save-model <bundle.zip> | --model <bundle.zip> [--update <dir>]] [--cache <dir>] [--workers <n>]
+    //        [--pooling <name>] [--lemma-cache <n> [--lemma-mode <exact|approximate>]] [--metrics <file>]
+    //   --save-model  train as usual, then persist the model bundle
+    //   --model       predict-only: load the bundle and go straight to inference, never train
+    //   --update      fine-tune the loaded model on the labelled training articles in dir before predicting;
+    //                 combine with --save-model to persist the updated bundle
+    //   --cache       reuse document embeddings from previous runs (bounded on-disk LRU)
+    //   --workers     train data-parallel on n workers with early stopping instead of 100 sequential epochs
+    //   --pooling     per-word-mean (default), mean, max or tfidf; all but per-word-mean give fixed-width
+    //                 features and skip the embedding size pass. Ignored with --model, which keeps its own
+    //   --metrics     write stage timings and counters to file at the end (JSON for *.json, else Prometheus text)
+    //   --lemma-cache cache up to n surface form -> lemma pairs and skip POS tagging for fully cached articles
+    //                 (faster; lemmas can differ from a full run for context-dependent forms)
+    //   --lemma-mode  exact (default) tags every article with an uncached word; approximate never runs the POS
+    //                 tagger and stems uncached words without a tag (fastest, least exact)
     public static void main(String[] args) throws Exception {
+        StopWatch mySW = new StopWatch();
         mySW.start();
-        AdvancedNewsClassifier classifier = new AdvancedNewsClassifier();
+        String modelFile = null;
+        String saveModelFile = null;
+        String cacheDirectory = null;
+        String updateDirectory = null;
+        int workers = 0;
+        int lemmaCacheSize = 0;
+        boolean approximateLemmas = false;
+        String metricsFile = null;
+        PoolingStrategy pooling = PoolingStrategy.PER_WORD_MEAN;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--model" -> modelFile = args[i + 1];
+                case "--save-model" -> saveModelFile = args[i + 1];
+                case "--cache" -> cacheDirectory = args[i + 1];
+                case "--update" -> updateDirectory = args[i + 1];
+                case "--workers" -> workers = Integer.parseInt(args[i + 1]);
+                case "--lemma-cache" -> lemmaCacheSize = Integer.parseInt(args[i + 1]);
+                case "--lemma-mode" -> approximateLemmas = switch (args[i + 1]) {
+                    case "exact" -> false;
+                    case "approximate" -> true;
+                    default -> throw new IllegalArgumentException("Unknown lemma mode: " + args[i + 1]);
+                };
+                case "--metrics" -> metricsFile = args[i + 1];
+                case "--pooling" -> pooling = PoolingStrategy.forName(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        ClassifierContext context = ClassifierContext.getDefault().withPoolingStrategy(pooling);
+        if (lemmaCacheSize > 0) {
+            context = context.withLemmaCache(new LemmaCache(lemmaCacheSize, approximateLemmas));
+        }
+        AdvancedNewsClassifier classifier = new AdvancedNewsClassifier(context);
+        if (cacheDirectory != null) {
+            classifier.setEmbeddingCache(new EmbeddingCache(Paths.get(cacheDirectory), EMBEDDING_CACHE_BYTES));
+        }
+
+        if (updateDirectory != null && modelFile == null) {
+            throw new IllegalArgumentException("--update needs a --model to fine-tune");
+        }
 
-        classifier.embeddingSize = classifier.calculateEmbeddingSize(classifier.articleEmbeddings);
-        classifier.populateEmbedding();
-        classifier.neuralNetwork = classifier.buildNeuralNetwork(2);
-        classifier.predictResult(classifier.articleEmbeddings);
+        if (modelFile != null) {
+            ModelBundle bundle = ModelBundle.load(new File(modelFile));
+            if (updateDirectory != null) {
+                List<NewsArticles> labelled = new ArrayList<>();
+                try (NewsStream stream = classifier.toolkit.streamNews(Paths.get(updateDirectory), PREFETCH_BATCHES)) {
+                    stream.forEachRemaining(labelled::add);
+                }
+                bundle = classifier.updateModel(bundle, labelled, new IncrementalTrainer());
+                if (saveModelFile != null) {
+                    bundle.save(new File(saveModelFile));
+                }
+            } else {
+                classifier.loadModel(bundle);
+            }
+            classifier.prepareTestingArticles(classifier.preprocessThreads);
+        } else {
+            classifier.preprocessArticles(classifier.preprocessThreads);
+            classifier.fitPoolingStrategy();
+            classifier.embeddingSize = classifier.selectEmbeddingSize();
+            classifier.populateEmbedding();
+            if (workers > 0) {
+                ParallelTrainer trainer = new ParallelTrainer().setWorkers(workers).setBatchSize(classifier.BATCHSIZE).setVerbose(true);
+                classifier.neuralNetwork = classifier.buildNeuralNetwork(2, trainer);
+            } else {
+                classifier.neuralNetwork = classifier.buildNeuralNetwork(2);
+            }
+            if (saveModelFile != null) {
+                classifier.saveModel(new File(saveModelFile), 2);
+            }
+        }
+        classifier.predictResult(classifier.getArticleEmbeddings());
         classifier.printResults();
+        LemmaCache lemmaCache = classifier.getContext().getLemmaCache();
+        if (lemmaCache != null) {
+            System.out.println(lemmaCache);
+        }
         mySW.stop();
         System.out.println("Total elapsed time: " + mySW.getTime());
+        if (metricsFile != null) {
+            Metrics.getGlobal().writeTo(Paths.get(metricsFile));
+        }
+    }
+
+    // The bundle keeps a replay sample of the training set so it can later be fine-tuned with updateModel
+    public ModelBundle saveModel(File _file, int _numOfClasses) throws Exception {
+        String[] labels = new String[_numOfClasses];
+        for (int i = 0; i < _numOfClasses; i++) {
+            labels[i] = String.valueOf(i + 1); // class index i was trained from <label>i+1</label>
+        }
+        DataSet training = packTrainingSet(_numOfClasses);
+        DataSet replay = IncrementalTrainer.reservoir(null, 0, training, IncrementalTrainer.DEFAULT_REPLAY_CAPACITY, new Random(42));
+        ModelBundle bundle = new ModelBundle(neuralNetwork, embeddingSize, getVocabularyFingerprint(), labels,
+                replay, training.numExamples(), context.getPoolingStrategy());
+        bundle.save(_file);
+        return bundle;
+    }
+
+    // Fine-tunes _bundle's network on the Training articles of _news at the bundle's frozen embeddingSize,
+    // then switches this classifier to the updated model. Other articles in _news are ignored.
+    public ModelBundle updateModel(ModelBundle _bundle, List<NewsArticles> _news, IncrementalTrainer _trainer) throws Exception {
+        loadModel(_bundle);
+        List<ArticlesEmbedding> labelled = new ArrayList<>();
+        for (NewsArticles news : _news) {
+            if (news.getNewsType() == NewsArticles.DataType.Training) {
+                ArticlesEmbedding article = new ArticlesEmbedding(context, news.getNewsTitle(), news.getNewsContent(), news.getNewsType(), news.getNewsLabel());
+                article.setEmbeddingSize(embeddingSize);
+                labelled.add(article);
+            }
+        }
+        if (labelled.isEmpty()) {
+            throw new IllegalArgumentException("No labelled training articles to update the model with");
+        }
+        ArticlesEmbedding.preprocess(labelled, preprocessThreads);
+        INDArray features = null;
+        INDArray labels = Nd4j.zeros(labelled.size(), _bundle.getNumberOfClasses());
+        for (int i = 0; i < labelled.size(); i++) {
+            ArticlesEmbedding article = labelled.get(i);
+            INDArray embedding = article.getEmbedding();
+            if (features == null) {
+                features = Nd4j.create(embedding.dataType(), labelled.size(), embedding.length());
+            }
+            features.putRow(i, embedding);
+            labels.putScalar(i, _bundle.getClassIndex(article.getNewsLabel()), 1);
+        }
+        ModelBundle updated = _trainer.update(_bundle, new DataSet(features, labels));
+        neuralNetwork = updated.getNetwork();
+        return updated;
+    }
+
+    public void loadModel(ModelBundle _bundle) throws IOException {
+        _bundle.checkVocabulary(getVocabularyFingerprint());
+        embeddingSize = _bundle.getEmbeddingSize();
+        neuralNetwork = _bundle.getNetwork();
+        setContext(context.withPoolingStrategy(_bundle.getPooling()));
+    }
+
+    // Inference only needs the testing articles: size them from the loaded model and skip the training set.
+    // Articles found in the embedding cache skip CoreNLP and GloVe lookup entirely.
+    public void prepareTestingArticles(int _threads) throws Exception {
+        List<ArticlesEmbedding> testingArticles = new ArrayList<>();
+        for (ArticlesEmbedding article : getArticleEmbeddings()) {
+            if (article.getNewsType() == NewsArticles.DataType.Testing) {
+                article.setEmbeddingSize(embeddingSize);
+                testingArticles.add(article);
+            }
+        }
+        List<ArticlesEmbedding> misses = restoreCachedEmbeddings(testingArticles);
+        ArticlesEmbedding.preprocess(misses, _threads);
+        for (ArticlesEmbedding article : misses) {
+            cacheEmbedding(article, article.getEmbedding());
+        }
+    }
+
+    // Returns the articles that still need computing
+    private List<ArticlesEmbedding> restoreCachedEmbeddings(List<ArticlesEmbedding> _articles) {
+        if (embeddingCache == null) {
+            return _articles;
+        }
+        List<ArticlesEmbedding> misses = new ArrayList<>();
+        for (ArticlesEmbedding article : _articles) {
+            float[] cached = embeddingCache.get(embeddingCacheKey(article));
+            if (cached != null) {
+                article.setEmbedding(Nd4j.createFromArray(cached).reshape(1, cached.length));
+            } else {
+                misses.add(article);
+            }
+        }
+        return misses;
+    }
+
+    private void cacheEmbedding(ArticlesEmbedding _article, INDArray _embedding) throws IOException {
+        if (embeddingCache != null) {
+            embeddingCache.put(embeddingCacheKey(_article), _embedding.toFloatVector());
+        }
+    }
+
+    private String embeddingCacheKey(ArticlesEmbedding _article) {
+        PoolingStrategy pooling = context.getPoolingStrategy();
+        String fingerprint = getVocabularyFingerprint();
+        if (pooling != PoolingStrategy.PER_WORD_MEAN) {
+            fingerprint += "/" + pooling.getSignature(); // per-word-mean keys predate pooling strategies
+        }
+        LemmaCache lemmaCache = context.getLemmaCache();
+        if (lemmaCache != null && lemmaCache.isApproximate()) {
+            fingerprint += "/approximate-lemmas"; // stemmed features must never be served to an exact run
+        }
+        return EmbeddingCache.key(_article.getRawContent(), embeddingSize, fingerprint);
+    }
+
+    public void setEmbeddingCache(EmbeddingCache _embeddingCache) {
+        embeddingCache = _embeddingCache;
+    }
+
+    public ClassifierContext getContext() {
+        return context;
+    }
+
+    // Switches this classifier and its corpus articles to _context. Embeddings already computed are kept only
+    // if they would come out the same (same vocabulary and pooling); otherwise the next populateEmbedding
+    // recomputes them into a fresh feature matrix
+    public void setContext(ClassifierContext _context) {
+        if (!_context.embedsLike(context)) {
+            featureMatrix = null;
+        }
+        context = _context;
+        if (articleEmbeddings != null) {
+            for (ArticlesEmbedding article : articleEmbeddings) {
+                article.setContext(_context);
+            }
+        }
+    }
+
+    public String getVocabularyFingerprint() {
+        return context.getVocabularyFingerprint();
     }
 
     public List<Glove> createGloveList() {
         List<Glove> listResult = new ArrayList<>();
-        List<String> listVocabulary = Toolkit.getListVocabulary();
-        List<double[]> listVectors = Toolkit.getlistVectors();
-        for (int i = 0; i < listVocabulary.size(); i++){
-            String word = listVocabulary.get(i);
-            if (!ArticlesEmbedding.isStopWord(word,Toolkit.STOPWORDS)){
-                double[] vectorArray = listVectors.get(i);
-                Vector vector = new Vector(vectorArray);
-                listResult.add(new Glove(word,vector));
+        EmbeddingTable table = context.getEmbeddingTable();
+        for (int row = 0; row < table.size(); row++) {
+            if (context.getWordIndex(table.getWord(row)) == row) {
+                double[] vectorArray = new double[table.getDimension()];
+                table.copyRow(row, vectorArray, 0);
+                listResult.add(new Glove(table.getWord(row), new Vector(vectorArray)));
             }
         }
         return listResult;
     }
 
-    private void createGloveMap() {
-        gloveMap = new HashMap<>();
-        List<String> listVocabulary = Toolkit.getListVocabulary();
-        List<double[]> listVectors = Toolkit.getlistVectors();
-        for (int i = 0; i < listVocabulary.size(); i++) {
-            String word = listVocabulary.get(i);
-            if (!ArticlesEmbedding.isStopWord(word, Toolkit.STOPWORDS)) {
-                double[] vectorArray = listVectors.get(i);
-                Vector vector = new Vector(vectorArray);
-                Glove glove = new Glove(word, vector);
-                gloveMap.put(word.toLowerCase(), glove);
-            }
-        }
+    public int getWordIndex(String word) {
+        return context.getWordIndex(word);
+    }
+
+    public int[] getTokenIds(String[] _tokens) {
+        return context.getTokenIds(_tokens);
+    }
+
+    public List<String> nearestWords(String _word, int _k) {
+        return context.nearestWords(_word, _k);
     }
 
-    public static Glove getGloveByWord(String word) {
-        return gloveMap.get(word.toLowerCase());
+    public Glove getGloveByWord(String word) {
+        return context.getGloveByWord(word);
     }
 
-    public static List<ArticlesEmbedding> loadData() {
+    public List<ArticlesEmbedding> loadData() {
+        if (newsArticles == null) {
+            newsArticles = toolkit.loadNews();
+        }
         List<ArticlesEmbedding> listEmbedding = new ArrayList<>();
         for (NewsArticles news : newsArticles) {
-            ArticlesEmbedding myAE = new ArticlesEmbedding(news.getNewsTitle(), news.getNewsContent(), news.getNewsType(), news.getNewsLabel());
+            ArticlesEmbedding myAE = new ArticlesEmbedding(context, news.getNewsTitle(), news.getNewsContent(), news.getNewsType(), news.getNewsLabel());
             listEmbedding.add(myAE);
         }
         return listEmbedding;
     }
 
-    public int calculateEmbeddingSize(List<ArticlesEmbedding> _listEmbedding) {
-        int intMedian = -1;
-        int[] docLengths = new int[_listEmbedding.size()];
-        for (int i = 0; i < _listEmbedding.size(); i++){
-            String[] words = _listEmbedding.get(i).getNewsContent().split("\\s+");
-            int count = 0;
-            for (String word:words){
-                if (isWordInGloveList(word)){
-                    count++;
-                }
+    // CoreNLP preprocessing is the dominant cost, so fan it out before the sequential stages run. The
+    // workers also count GloVe hits, so getEmbeddingSizeEstimator() has the median without another pass.
+    public void preprocessArticles(int _threads) throws InterruptedException {
+        sizeEstimator = new EmbeddingSizeEstimator();
+        ArticlesEmbedding.preprocess(getArticleEmbeddings(), _threads, sizeEstimator);
+    }
+
+    // Histogram of GloVe hits per article from the last preprocessArticles call; null before it
+    public EmbeddingSizeEstimator getEmbeddingSizeEstimator() {
+        return sizeEstimator;
+    }
+
+    // Refits the current pooling strategy (e.g. TF-IDF weights) to the preprocessed training articles
+    public void fitPoolingStrategy() {
+        List<ArticlesEmbedding> training = new ArrayList<>();
+        for (ArticlesEmbedding article : getArticleEmbeddings()) {
+            if (article.getNewsType() == NewsArticles.DataType.Training) {
+                training.add(article);
             }
-            docLengths[i] = count;
-        }
-        int[] sortedList = docLengths.clone();
-        Arrays.sort(sortedList); // O(n log n) - replaced bubble sort
-        int n = sortedList.length;
-        if (n % 2 == 0) {
-            intMedian = (sortedList[n / 2] + sortedList[(n / 2) + 1]) / 2;
         }
-        else {
-            intMedian = sortedList[(n + 1) / 2];
+        setContext(context.withPoolingStrategy(context.getPoolingStrategy().fit(training)));
+    }
+
+    // Network input width: the vector dimension for fixed-width pooling, otherwise the median known-word
+    // count from the last preprocessArticles call
+    public int selectEmbeddingSize() {
+        if (context.getPoolingStrategy().isFixedWidth()) {
+            return context.getEmbeddingTable().getDimension();
         }
-        return intMedian;
+        return sizeEstimator.getEmbeddingSize();
     }
-    private static boolean isWordInGloveList(String word) {
-        return gloveMap.containsKey(word.toLowerCase()); // HashMap O(1) vs O(n) linear search
+
+    public int calculateEmbeddingSize(List<ArticlesEmbedding> _listEmbedding) {
+        EmbeddingSizeEstimator estimator = new EmbeddingSizeEstimator();
+        for (ArticlesEmbedding article : _listEmbedding) {
+            estimator.add(article.getKnownWordCount());
+        }
+        return estimator.getEmbeddingSize();
     }
 
 
+    public void populateEmbedding(int _threads) throws InterruptedException {
+        preprocessArticles(_threads);
+        populateEmbedding();
+    }
+
     public void populateEmbedding() {
-        for (int i = 0; i < articleEmbeddings.size(); i++){
+        List<ArticlesEmbedding> articles = getArticleEmbeddings();
+        List<ArticlesEmbedding> misses = new ArrayList<>();
+        if (embeddingCache != null) {
+            List<ArticlesEmbedding> pending = new ArrayList<>();
+            for (ArticlesEmbedding article : articles) {
+                if (!article.hasEmbedding()) {
+                    pending.add(article);
+                }
+            }
+            misses = restoreCachedEmbeddings(pending);
+        }
+        bindFeatureMatrix();
+        for (int i = 0; i < articles.size(); i++){
             try{
-                articleEmbeddings.get(i).getEmbedding();
+                articles.get(i).getEmbedding();
             }
             catch (InvalidSizeException e){
-                articleEmbeddings.get(i).setEmbeddingSize(embeddingSize);
+                articles.get(i).setEmbeddingSize(embeddingSize);
                 try {
-                    articleEmbeddings.get(i).getEmbedding();
+                    articles.get(i).getEmbedding();
                 } catch (Exception e1){
                     throw new RuntimeException(e1);
                 }
             }
             catch (InvalidTextException e){
-                articleEmbeddings.get(i).getNewsContent();
+                articles.get(i).getNewsContent();
                 try{
-                    articleEmbeddings.get(i).getEmbedding();
+                    articles.get(i).getEmbedding();
                 } catch (Exception e1){
                     throw new RuntimeException(e1);
                 }
@@ -151,29 +416,105 @@ public class AdvancedNewsClassifier {
                 throw new RuntimeException(e);
             }
         }
+        try {
+            for (ArticlesEmbedding article : misses) {
+                cacheEmbedding(article, article.getEmbedding());
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
     }
 
+    // Row i of one preallocated articles x embeddingSize matrix holds article i's embedding, so the corpus
+    // is built without a per-article allocation. Restored embeddings and articles with their own size keep theirs.
+    // articleEmbeddings never changes once loaded, so row i always belongs to the same article.
+    private void bindFeatureMatrix() {
+        if (embeddingSize <= 0) {
+            return;
+        }
+        // Repeated calls at the same size keep the matrix; rows computed last time are already in it
+        List<ArticlesEmbedding> articles = getArticleEmbeddings();
+        boolean reuse = featureMatrix != null && featureMatrix.columns() == embeddingSize;
+        if (!reuse) {
+            featureMatrix = Nd4j.create(DataType.FLOAT, articles.size(), embeddingSize);
+        }
+        for (int i = 0; i < articles.size(); i++) {
+            ArticlesEmbedding article = articles.get(i);
+            if (article.getEmbeddingSize() == -1) {
+                article.setEmbeddingSize(embeddingSize);
+            }
+            if (reuse && article.hasEmbedding()) {
+                continue;
+            }
+            if (article.getEmbeddingSize() == embeddingSize && !article.hasRestoredEmbedding()) {
+                article.setEmbeddingTarget(featureMatrix.getRow(i, true));
+            }
+        }
+    }
+
+    // Corpus embeddings from the last populateEmbedding(), one row per article in load order; null before it
+    public INDArray getFeatureMatrix() {
+        return featureMatrix;
+    }
+
+    // MultiLayerNetwork.fit prefetches the next batch on a background thread itself (the iterator supports async)
     public DataSetIterator populateRecordReaders(int _numberOfClasses) throws Exception {
-        ListDataSetIterator myDataIterator = null;
-        List<DataSet> listDS = new ArrayList<>();
-        INDArray inputNDArray = null;
-        INDArray outputNDArray = null;
+        return new PackedDataSetIterator(packTrainingSet(_numberOfClasses), BATCHSIZE, null);
+    }
 
-        for (ArticlesEmbedding article : articleEmbeddings){
+    // One single-example DataSet per training article (embedding row, one-hot label)
+    public List<DataSet> populateTrainingSet(int _numberOfClasses) throws Exception {
+        return packTrainingSet(_numberOfClasses).asList();
+    }
+
+    // All training articles packed once into a features matrix (one embedding per row) and a one-hot label matrix
+    public DataSet packTrainingSet(int _numberOfClasses) throws Exception {
+        List<ArticlesEmbedding> trainingArticles = new ArrayList<>();
+        for (ArticlesEmbedding article : getArticleEmbeddings()){
             if (article.getNewsType() == NewsArticles.DataType.Training){
-                inputNDArray = article.getEmbedding();
-                outputNDArray = Nd4j.zeros(1, _numberOfClasses);
-                int index = Integer.parseInt(article.getNewsLabel()) - 1; // Convert 1,2 labels to 0,1 indices
-                outputNDArray.putScalar(0, index, 1);
-                DataSet myDataSet = new DataSet(inputNDArray, outputNDArray);
-                listDS.add(myDataSet);
+                trainingArticles.add(article);
+            }
+        }
+        if (trainingArticles.isEmpty()) {
+            throw new IllegalStateException("No training articles");
+        }
+        INDArray inputNDArray = null;
+        INDArray outputNDArray = Nd4j.zeros(trainingArticles.size(), _numberOfClasses);
+        for (int i = 0; i < trainingArticles.size(); i++) {
+            ArticlesEmbedding article = trainingArticles.get(i);
+            INDArray embedding = article.getEmbedding();
+            if (inputNDArray == null) {
+                inputNDArray = Nd4j.create(embedding.dataType(), trainingArticles.size(), embedding.length());
             }
+            inputNDArray.putRow(i, embedding);
+            int index = Integer.parseInt(article.getNewsLabel()) - 1; // Convert 1,2 labels to 0,1 indices
+            outputNDArray.putScalar(i, index, 1);
         }
-        return new ListDataSetIterator(listDS, BATCHSIZE);
+        return new DataSet(inputNDArray, outputNDArray);
     }
 
     public MultiLayerNetwork buildNeuralNetwork(int _numOfClasses) throws Exception {
         DataSetIterator trainIter = populateRecordReaders(_numOfClasses);
+        MultiLayerNetwork model = createNeuralNetwork(_numOfClasses);
+
+        for (int n = 0; n < 100; n++) {
+            Metrics.Sample sample = TRAIN_EPOCH_TIMER.start();
+            try {
+                model.fit(trainIter);
+            } finally {
+                sample.stop();
+            }
+            trainIter.reset();
+        }
+        return model;
+    }
+
+    // Same network, trained data-parallel across _trainer's workers with early stopping on a validation split
+    public MultiLayerNetwork buildNeuralNetwork(int _numOfClasses, ParallelTrainer _trainer) throws Exception {
+        return _trainer.fit(createNeuralNetwork(_numOfClasses), packTrainingSet(_numOfClasses));
+    }
+
+    private MultiLayerNetwork createNeuralNetwork(int _numOfClasses) {
         MultiLayerConfiguration conf = new NeuralNetConfiguration.Builder()
                 .seed(42)
                 .trainingWorkspaceMode(WorkspaceMode.ENABLED)
@@ -191,30 +532,85 @@ public class AdvancedNewsClassifier {
 
         MultiLayerNetwork model = new MultiLayerNetwork(conf);
         model.init();
-
-        for (int n = 0; n < 100; n++) {
-            model.fit(trainIter);
-            trainIter.reset();
-        }
         return model;
     }
 
     public List<Integer> predictResult(List<ArticlesEmbedding> _listEmbedding) throws Exception {
+        return predictResult(_listEmbedding, predictBatchSize);
+    }
+
+    public List<Integer> predictResult(List<ArticlesEmbedding> _listEmbedding, int _batchSize) throws Exception {
         List<Integer> listResult = new ArrayList<>();
+        List<ArticlesEmbedding> batch = new ArrayList<>(_batchSize);
         for (ArticlesEmbedding article : _listEmbedding){
             if (article.getNewsType() == NewsArticles.DataType.Testing){
-                int[] result = neuralNetwork.predict(article.getEmbedding());
-                String predictedLabel = String.valueOf(result[0]);
-                article.setNewsLabel(predictedLabel);
-                listResult.add(result[0]);
+                batch.add(article);
+                if (batch.size() == _batchSize) {
+                    addAll(listResult, predictBatch(batch));
+                    batch.clear();
+                }
             }
         }
+        if (!batch.isEmpty()) {
+            addAll(listResult, predictBatch(batch));
+        }
         return listResult;
     }
 
+    // One forward pass for the whole batch instead of one native dispatch per article
+    public int[] predictBatch(List<ArticlesEmbedding> _batch) throws Exception {
+        INDArray[] rows = new INDArray[_batch.size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = _batch.get(i).getEmbedding();
+        }
+        int[] result;
+        Metrics.Sample sample = PREDICT_TIMER.start();
+        try {
+            result = neuralNetwork.output(Nd4j.vstack(rows), false).argMax(1).toIntVector();
+        } finally {
+            sample.stop();
+        }
+        PREDICTED.add(result.length);
+        for (int i = 0; i < result.length; i++) {
+            _batch.get(i).setNewsLabel(String.valueOf(result[i]));
+        }
+        return result;
+    }
+
+    private static void addAll(List<Integer> _list, int[] _values) {
+        for (int value : _values) {
+            _list.add(value);
+        }
+    }
+
+    // Cleans, embeds and classifies articles one at a time as the stream delivers them, so the first
+    // results are available while later files are still being read. Nothing is retained between articles.
+    public int predictStream(Iterator<NewsArticles> _news, Consumer<ArticlesEmbedding> _onResult) throws Exception {
+        int count = 0;
+        while (_news.hasNext()) {
+            NewsArticles news = _news.next();
+            ArticlesEmbedding article = new ArticlesEmbedding(context, news.getNewsTitle(), news.getNewsContent(), news.getNewsType(), news.getNewsLabel());
+            article.setEmbeddingSize(embeddingSize);
+            article.getNewsContent();
+            INDArray embedding = article.getEmbedding();
+            int[] result;
+            Metrics.Sample sample = PREDICT_TIMER.start();
+            try {
+                result = neuralNetwork.predict(embedding);
+            } finally {
+                sample.stop();
+            }
+            PREDICTED.increment();
+            article.setNewsLabel(String.valueOf(result[0]));
+            _onResult.accept(article);
+            count++;
+        }
+        return count;
+    }
+
     public void printResults() {
         List<List<String>> groupedResults = new ArrayList<>();
-        for (ArticlesEmbedding article : articleEmbeddings) {
+        for (ArticlesEmbedding article : getArticleEmbeddings()) {
             if (article.getNewsType() == NewsArticles.DataType.Testing) {
                 String label = article.getNewsLabel();
                 int incrementedLabel = Integer.parseInt(label) + 1;
@@ -254,11 +650,15 @@ public class AdvancedNewsClassifier {
         groupedResults.add(newGroup);
     }
 
-    public static Map<String, Glove> getGloveMap() {
-        return gloveMap;
+    public EmbeddingTable getEmbeddingTable() {
+        return context.getEmbeddingTable();
     }
 
+    // The bundled corpus, loaded and wrapped on the first call; later calls return the same list
     public List<ArticlesEmbedding> getArticleEmbeddings() {
+        if (articleEmbeddings == null) {
+            articleEmbeddings = loadData();
+        }
         return articleEmbeddings;
     }
 
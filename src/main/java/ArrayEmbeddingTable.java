@@ -0,0 +1,109 @@
+import java.util.Arrays;
+
+// On-heap EmbeddingTable: open-addressing String -> row index plus one row-major double[] matrix.
+public class ArrayEmbeddingTable implements EmbeddingTable {
+    private static final int EMPTY_SLOT = -1;
+
+    private final int intDimension;
+    private int intSize = 0;
+    private String[] words;
+    private double[] matrix;
+    private int[] slots;
+
+    public ArrayEmbeddingTable(int _expectedSize, int _dimension) {
+        intDimension = _dimension;
+        int capacity = Math.max(16, _expectedSize);
+        words = new String[capacity];
+        matrix = new double[capacity * _dimension];
+        slots = new int[tableSizeFor(capacity)];
+        Arrays.fill(slots, EMPTY_SLOT);
+    }
+
+    // Adds or replaces the vector for _word (last write wins, as with Map.put) and returns its row.
+    public int put(String _word, double[] _vector) {
+        if (_vector.length != intDimension) {
+            throw new IllegalArgumentException("Expected " + intDimension + " dimensions, got " + _vector.length);
+        }
+        int slot = findSlot(_word);
+        int row = slots[slot];
+        if (row == EMPTY_SLOT) {
+            if (intSize == words.length) {
+                grow();
+                slot = findSlot(_word);
+            }
+            row = intSize++;
+            words[row] = _word;
+            slots[slot] = row;
+        }
+        System.arraycopy(_vector, 0, matrix, row * intDimension, intDimension);
+        return row;
+    }
+
+    private void grow() {
+        int capacity = words.length * 2;
+        words = Arrays.copyOf(words, capacity);
+        matrix = Arrays.copyOf(matrix, capacity * intDimension);
+        slots = new int[tableSizeFor(capacity)];
+        Arrays.fill(slots, EMPTY_SLOT);
+        for (int row = 0; row < intSize; row++) {
+            slots[findSlot(words[row])] = row;
+        }
+    }
+
+    private int findSlot(CharSequence _word) {
+        int mask = slots.length - 1;
+        int slot = hash(_word) & mask;
+        while (slots[slot] != EMPTY_SLOT && !contentEquals(words[slots[slot]], _word)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    @Override
+    public int indexOf(CharSequence _word) {
+        return slots[findSlot(_word)];
+    }
+
+    @Override
+    public int size() {
+        return intSize;
+    }
+
+    @Override
+    public int getDimension() {
+        return intDimension;
+    }
+
+    @Override
+    public String getWord(int _row) {
+        return words[_row];
+    }
+
+    @Override
+    public double getElement(int _row, int _column) {
+        return matrix[_row * intDimension + _column];
+    }
+
+    @Override
+    public void copyRow(int _row, double[] _destination, int _offset) {
+        System.arraycopy(matrix, _row * intDimension, _destination, _offset, intDimension);
+    }
+
+    private static boolean contentEquals(String _stored, CharSequence _word) {
+        return _stored.length() == _word.length() && _stored.contentEquals(_word);
+    }
+
+    private static int hash(CharSequence _word) {
+        int h = 0x811C9DC5;
+        for (int i = 0; i < _word.length(); i++) {
+            h ^= _word.charAt(i);
+            h *= 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    // Power of two with a load factor of at most 0.5
+    private static int tableSizeFor(int _capacity) {
+        return Integer.highestOneBit(_capacity * 2 - 1) << 1;
+    }
+}
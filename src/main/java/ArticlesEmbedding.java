@@ -1,19 +1,99 @@
 import edu.stanford.nlp.ling.*;
 import edu.stanford.nlp.pipeline.*;
+import edu.stanford.nlp.process.Morphology;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.nd4j.linalg.api.buffer.DataType.FLOAT;
 
 
 public class ArticlesEmbedding extends NewsArticles {
     private int intSize = -1;
     private String processedText = "";
-    private static StanfordCoreNLP pipeline = null; // Singleton pattern prevents timeout failures
-
-    private INDArray newsEmbedding = Nd4j.create(0);
+    private String[] tokens = null; // lemmas from getNewsContent, dropped once resolved to tokenIds
+    private int[] tokenIds = null; // vocabulary row per processed word, EmbeddingTable.NOT_FOUND when out of vocabulary
+    private ClassifierContext context; // vocabulary, stop words, pooling and lemma cache; see getContext()
+    private ClassifierContext tokenContext = null; // context tokenIds were resolved against
+    private int intKnownWords = -1; // tokenIds that are not NOT_FOUND
+    // One lazily created pipeline per thread: reused like the old singleton (prevents timeout failures)
+    // while letting preprocess() run workers without sharing mutable pipeline state. The annotators are
+    // the same for every context, so classifiers on the same thread share them.
+    private static final ThreadLocal<StanfordCoreNLP> pipeline = ThreadLocal.withInitial(ArticlesEmbedding::createPipeline);
+    // Split pipeline for the lemma cache path: tokenize first, and only run pos,lemma on documents with uncached words
+    private static final ThreadLocal<StanfordCoreNLP> tokenizer = ThreadLocal.withInitial(() -> createPipeline("tokenize", true));
+    private static final ThreadLocal<StanfordCoreNLP> tagger = ThreadLocal.withInitial(() -> createPipeline("pos,lemma", false));
+    // Untagged lemmatiser for approximate lemma cache misses; Morphology keeps lexer state, hence per thread
+    private static final ThreadLocal<Morphology> stemmer = ThreadLocal.withInitial(Morphology::new);
+    private static final Metrics.Timer ANNOTATE_TIMER = Metrics.getGlobal().timer("corenlp_annotate", "CoreNLP tokenize/pos/lemma per article");
+    private static final Metrics.Timer EMBEDDING_TIMER = Metrics.getGlobal().timer("embedding_build", "Pooling one article's word vectors into its feature row");
+    private static final Metrics.Counter TOKENS = Metrics.getGlobal().counter("tokens", "Processed words looked up in the vocabulary");
+    private static final Metrics.Counter OOV_TOKENS = Metrics.getGlobal().counter("tokens_oov", "Processed words with no GloVe vector");
+    static {
+        Metrics.getGlobal().gauge("oov_rate", "Share of processed words with no GloVe vector",
+                () -> TOKENS.get() == 0 ? 0 : OOV_TOKENS.get() / (double) TOKENS.get());
+    }
+    private INDArray newsEmbedding = null; // reduced 1 x intSize row, possibly a view into a corpus feature matrix
+    private INDArray embeddingTarget = null; // preallocated row getEmbedding() writes into, see setEmbeddingTarget
+    private static final ThreadLocal<double[]> vectorScratch = ThreadLocal.withInitial(() -> new double[0]);
+    private INDArray restoredEmbedding = null; // document embedding supplied from EmbeddingCache
 
+    // Uses ClassifierContext.getDefault()
     public ArticlesEmbedding(String _title, String _content, NewsArticles.DataType _type, String _label) {
+        this(null, _title, _content, _type, _label);
+    }
+
+    public ArticlesEmbedding(ClassifierContext _context, String _title, String _content, NewsArticles.DataType _type, String _label) {
         super(_title,_content,_type,_label);
+        context = _context;
+    }
+
+    // Articles built without a context resolve the default one on first use
+    public ClassifierContext getContext() {
+        if (context == null) {
+            try {
+                context = ClassifierContext.getDefault();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return context;
+    }
+
+    // Lets a classifier move its articles to a derived context (e.g. fitted pooling weights). Processed text is
+    // kept unless the stop words change; an embedding pooled under another vocabulary or strategy is dropped,
+    // together with its feature matrix row, and recomputed by the next getEmbedding
+    void setContext(ClassifierContext _context) {
+        StopWordFilter stopWords = context != null ? context.getStopWordFilter() : Toolkit.STOPWORD_FILTER;
+        if (_context.getStopWordFilter() != stopWords) {
+            processedText = "";
+            tokens = null;
+            tokenIds = null;
+            tokenContext = null;
+            intKnownWords = -1;
+        }
+        ClassifierContext previous = context != null ? context : ClassifierContext.peekDefault();
+        if (previous == null || !_context.embedsLike(previous)) {
+            // Fixed-width pooling and restored embeddings set the size themselves; a chosen size is kept
+            if (restoredEmbedding != null || (newsEmbedding != null && previous.getPoolingStrategy().isFixedWidth())) {
+                intSize = -1;
+            }
+            restoredEmbedding = null;
+            newsEmbedding = null;
+            embeddingTarget = null;
+        }
+        context = _context;
     }
 
     public void setEmbeddingSize(int _size) {
@@ -28,81 +108,291 @@ public class ArticlesEmbedding extends NewsArticles {
     public String getNewsContent() {
         if (processedText.isEmpty()){
             String content = super.getNewsContent();
-            String[] stopwords = Toolkit.STOPWORDS;
-            processedText = processingText(textCleaning(content), stopwords).toLowerCase();
-            return processedText.trim();
+            // Cleaning needs no vocabulary: without a context the default stop words apply and nothing is loaded
+            StopWordFilter stopWords = context != null ? context.getStopWordFilter() : Toolkit.STOPWORD_FILTER;
+            String[] lemmas = lemmas(TextNormalizer.clean(content), stopWords);
+            for (int i = 0; i < lemmas.length; i++) {
+                lemmas[i] = lemmas[i].toLowerCase();
+            }
+            tokens = lemmas;
+            processedText = String.join(" ", lemmas);
+            return processedText;
         }
         return processedText;
     }
-    public String processingText(String text, String[] stopWords){
-        StringBuilder mySB = new StringBuilder();
-        if (pipeline == null) { // Lazy initialization prevents 76-minute timeout failures
-            Properties properties = new Properties();
-            properties.setProperty("annotators","tokenize,pos,lemma");
-            pipeline = new StanfordCoreNLP(properties);
+
+    // Processed words in order. Once token ids are resolved the strings are no longer kept, and this
+    // re-tokenises processedText; hot paths should use getTokenIds instead.
+    public String[] getTokens() {
+        return tokens != null ? tokens : TextNormalizer.tokenize(getNewsContent());
+    }
+
+    // Vocabulary row of every processed word (EmbeddingTable.NOT_FOUND for out-of-vocabulary words and
+    // stopwords), looked up once per loaded table so later stages walk ints instead of hashing strings
+    public int[] getTokenIds() {
+        ClassifierContext current = getContext();
+        if (tokenIds == null || !current.sharesVocabulary(tokenContext)) {
+            int[] ids = current.getTokenIds(getTokens());
+            int known = 0;
+            for (int id : ids) {
+                if (id != EmbeddingTable.NOT_FOUND) {
+                    known++;
+                }
+            }
+            tokenIds = ids;
+            tokenContext = current;
+            intKnownWords = known;
+            TOKENS.add(ids.length);
+            OOV_TOKENS.add(ids.length - known);
+            tokens = null;
         }
-        CoreDocument document = pipeline.processToCoreDocument(text);
+        return tokenIds;
+    }
+
+    // Number of processed words that have a GloVe vector, i.e. the rows this article can fill
+    public int getKnownWordCount() {
+        getTokenIds();
+        return intKnownWords;
+    }
 
-        for (CoreLabel token:document.tokens()){
-            if(!isStopWord(token.lemma(),stopWords)){
-                mySB.append(token.lemma()).append(" ");
+    // Runs CoreNLP over every article on a bounded pool; each article's result is the same as the sequential path.
+    public static void preprocess(List<ArticlesEmbedding> _articles, int _threads) throws InterruptedException {
+        preprocess(_articles, _threads, null);
+    }
+
+    // Also feeds each article's GloVe hit count to _sizes (if not null) while it is still hot on the worker,
+    // so the embedding size is known as soon as preprocessing ends
+    public static void preprocess(List<ArticlesEmbedding> _articles, int _threads, EmbeddingSizeEstimator _sizes) throws InterruptedException {
+        if (_threads <= 1 || _articles.size() <= 1) {
+            for (ArticlesEmbedding article : _articles) {
+                article.preprocess(_sizes);
             }
+            return;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(_threads, _articles.size()), runnable -> {
+            Thread thread = new Thread(runnable, "preprocess-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<String>> futures = new ArrayList<>(_articles.size());
+            for (ArticlesEmbedding article : _articles) {
+                futures.add(executor.submit(() -> article.preprocess(_sizes)));
+            }
+            for (Future<String> future : futures) {
+                future.get(); // also publishes processedText to the calling thread
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to preprocess article: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
         }
-        return mySB.toString().trim();
     }
-    public static boolean isStopWord(String word, String[] stopWords) {
-        for (String stopWord : stopWords) {
-            if (word.equalsIgnoreCase(stopWord)) {
-                return true;
+
+    // CoreNLP, then token ids when the article has a vocabulary (its own context, or an already loaded default)
+    private String preprocess(EmbeddingSizeEstimator _sizes) {
+        String content = getNewsContent();
+        if (context != null || ClassifierContext.peekDefault() != null) {
+            getTokenIds();
+            if (_sizes != null) {
+                _sizes.add(intKnownWords);
             }
         }
-        return false;
+        return content;
     }
 
-    public INDArray getEmbedding() throws Exception {
-        if (intSize == -1) {
-            throw new InvalidSizeException("Invalid Size");
+    private static StanfordCoreNLP createPipeline() {
+        return createPipeline("tokenize,pos,lemma", true);
+    }
+
+    private static StanfordCoreNLP createPipeline(String _annotators, boolean _enforceRequirements) {
+        Properties properties = new Properties();
+        properties.setProperty("annotators", _annotators);
+        properties.setProperty("enforceRequirements", String.valueOf(_enforceRequirements));
+        return new StanfordCoreNLP(properties);
+    }
+
+    public String processingText(String text, String[] stopWords){
+        return processingText(text, filterFor(stopWords));
+    }
+
+    public String processingText(String text, StopWordFilter stopWords){
+        return String.join(" ", lemmas(text, stopWords));
+    }
+
+    // Lemmas of the text's tokens that are not stop words, in document order
+    private String[] lemmas(String _text, StopWordFilter _stopWords) {
+        LemmaCache cache = context != null ? context.getLemmaCache() : null;
+        String[] documentLemmas;
+        Metrics.Sample sample = ANNOTATE_TIMER.start();
+        try {
+            documentLemmas = cache == null ? fullLemmas(_text) : cachedLemmas(_text, cache);
+        } finally {
+            sample.stop();
         }
-        else if (processedText.isEmpty()) {
-            throw new InvalidTextException("Invalid Text");
+        String[] lemmas = new String[documentLemmas.length];
+        int count = 0;
+        for (String lemma : documentLemmas) {
+            if (!_stopWords.isStopWord(lemma)) {
+                lemmas[count++] = lemma;
+            }
+        }
+        return Arrays.copyOf(lemmas, count);
+    }
+
+    private static String[] fullLemmas(String _text) {
+        List<CoreLabel> documentTokens = pipeline.get().processToCoreDocument(_text).tokens();
+        String[] lemmas = new String[documentTokens.size()];
+        for (int i = 0; i < lemmas.length; i++) {
+            lemmas[i] = documentTokens.get(i).lemma();
+        }
+        return lemmas;
+    }
+
+    // Tokenizes only and takes cached lemmas. Approximate mode stems the uncached tokens without a POS tag;
+    // exact mode skips the tagger only if every token is cached, otherwise the same annotation is tagged and
+    // lemmatised (no second tokenisation) and the cached lemmas are discarded. New lemmas refresh the cache.
+    private static String[] cachedLemmas(String _text, LemmaCache _cache) {
+        Annotation document = new Annotation(_text);
+        tokenizer.get().annotate(document);
+        List<CoreLabel> documentTokens = document.get(CoreAnnotations.TokensAnnotation.class);
+        String[] lemmas = new String[documentTokens.size()];
+        int hits = 0;
+        for (int i = 0; i < lemmas.length; i++) {
+            lemmas[i] = _cache.get(documentTokens.get(i).word());
+            hits += lemmas[i] != null ? 1 : 0;
+        }
+        boolean tagged = hits < lemmas.length && !_cache.isApproximate();
+        if (tagged) {
+            tagger.get().annotate(document);
+            for (int i = 0; i < lemmas.length; i++) {
+                CoreLabel token = documentTokens.get(i);
+                lemmas[i] = token.lemma();
+                _cache.put(token.word(), lemmas[i]);
+            }
+            hits = 0;
+        } else if (hits < lemmas.length) {
+            Morphology morphology = stemmer.get();
+            for (int i = 0; i < lemmas.length; i++) {
+                if (lemmas[i] == null) {
+                    String word = documentTokens.get(i).word();
+                    lemmas[i] = morphology.stem(word);
+                    _cache.put(word, lemmas[i]);
+                }
+            }
         }
-        else if (newsEmbedding.isEmpty()){
-                try{
-                    intSize = getEmbeddingSize();
-                    processedText = getNewsContent();
-                    String[] words = processedText.split("\\s+");
-                    int vectorLength = AdvancedNewsClassifier.getGloveMap().values().iterator().next().getVector().getVectorSize();
-                    newsEmbedding = Nd4j.create(intSize, vectorLength);
-
-                    int rowCount = 0;
-                    for (int i = 0; i < words.length && rowCount < intSize; i++) {
-                        Glove glove = findGloveWord(words[i]);
-                        if (glove != null) {
-                            double[] vector = glove.getVector().getAllElements();
-                            newsEmbedding.putRow(rowCount++, Nd4j.create(vector));
-                        }
-                    }
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
+        _cache.recordLookups(hits, lemmas.length - hits);
+        _cache.recordDocument(!tagged);
+        return lemmas;
+    }
+
+    // Share of cache hits whose lemma matches what the full pipeline gives in context, over _texts.
+    // 1 when nothing hit; the texts are not added to the cache.
+    public static double lemmaAgreement(List<String> _texts, LemmaCache _cache) {
+        long hits = 0;
+        long matches = 0;
+        for (String text : _texts) {
+            for (CoreLabel token : pipeline.get().processToCoreDocument(text).tokens()) {
+                String cached = _cache.get(token.word());
+                if (cached != null) {
+                    hits++;
+                    matches += cached.equals(token.lemma()) ? 1 : 0;
                 }
             }
+        }
+        return hits == 0 ? 1 : matches / (double) hits;
+    }
 
-        return Nd4j.vstack(newsEmbedding.mean(1));
+    public static boolean isStopWord(String word, String[] stopWords) {
+        return filterFor(stopWords).isStopWord(word);
+    }
 
+    // The default list maps to its prebuilt filter; other arrays cost one trie build, about the same as the old scan
+    private static StopWordFilter filterFor(String[] _stopWords) {
+        return _stopWords == Toolkit.STOPWORDS ? Toolkit.STOPWORD_FILTER : new StopWordFilter(_stopWords);
     }
-    private Glove findGloveWord(String word) {
-        return AdvancedNewsClassifier.getGloveByWord(word);
+
+    // Raw article body before cleaning/lemmatisation, e.g. for content-addressed caching
+    public String getRawContent() {
+        return super.getNewsContent();
     }
 
-    // Clean the given (_content) text by removing all the characters that are not 'a'-'z', '0'-'9' and white space.
-    private static String textCleaning(String _content) {
-        StringBuilder sbContent = new StringBuilder();
+    // Installs a previously computed document embedding so getEmbedding() needs neither CoreNLP nor GloVe
+    public void setEmbedding(INDArray _embedding) {
+        restoredEmbedding = _embedding;
+        intSize = (int) _embedding.length();
+    }
 
-        for (char c : _content.toLowerCase().toCharArray()) {
-            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || Character.isWhitespace(c)) {
-                sbContent.append(c);
+    // Fresh article sharing this one's processed text but no embedding; lets the embedding stage be
+    // repeated (e.g. by the JMH benchmarks) without paying for CoreNLP again
+    ArticlesEmbedding copyPreprocessed() {
+        ArticlesEmbedding copy = new ArticlesEmbedding(context, getNewsTitle(), getRawContent(), getNewsType(), getNewsLabel());
+        copy.processedText = getNewsContent();
+        copy.tokens = tokens;
+        copy.tokenIds = tokenIds;
+        copy.tokenContext = tokenContext;
+        copy.intKnownWords = intKnownWords;
+        copy.intSize = intSize;
+        return copy;
+    }
+
+    public boolean hasEmbedding() {
+        return restoredEmbedding != null || newsEmbedding != null;
+    }
+
+    public boolean hasRestoredEmbedding() {
+        return restoredEmbedding != null;
+    }
+
+    // Makes getEmbedding() write into _row (a 1 x intSize view, e.g. of the corpus feature matrix) instead of
+    // allocating its own; an embedding that was already computed is copied over and served from _row from now on
+    void setEmbeddingTarget(INDArray _row) {
+        if (newsEmbedding != null) {
+            _row.assign(newsEmbedding);
+            newsEmbedding = _row;
+        }
+        embeddingTarget = _row;
+    }
+
+    // Pools the article's known word vectors with its context's PoolingStrategy. Fixed-width strategies need no
+    // embedding size and set it to the vector dimension. Computed once: later calls return the same row.
+    public INDArray getEmbedding() throws Exception {
+        if (restoredEmbedding != null) {
+            return restoredEmbedding;
+        }
+        PoolingStrategy pooling = getContext().getPoolingStrategy();
+        if (intSize == -1 && !pooling.isFixedWidth()) {
+            throw new InvalidSizeException("Invalid Size");
+        }
+        else if (processedText.isEmpty()) {
+            throw new InvalidTextException("Invalid Text");
+        }
+        else if (newsEmbedding == null) {
+            Metrics.Sample sample = EMBEDDING_TIMER.start();
+            try {
+                EmbeddingTable table = getContext().getEmbeddingTable();
+                int vectorLength = table.getDimension();
+                if (pooling.isFixedWidth()) {
+                    intSize = vectorLength;
+                }
+                INDArray row = embeddingTarget != null && embeddingTarget.length() == intSize ? embeddingTarget : Nd4j.create(FLOAT, 1, intSize);
+                double[] scratch = vectorScratch.get();
+                if (scratch.length < 2 * vectorLength) {
+                    scratch = new double[2 * vectorLength];
+                    vectorScratch.set(scratch);
+                }
+                pooling.pool(getTokenIds(), table, row, scratch);
+                newsEmbedding = row;
+            } finally {
+                sample.stop();
             }
         }
-        return sbContent.toString().trim();
+        return newsEmbedding;
+    }
+
+    // Clean the given (_content) text by removing all the characters that are not 'a'-'z', '0'-'9' and white space.
+    static String textCleaning(String _content) {
+        return TextNormalizer.clean(_content);
     }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+import java.util.List;
+import java.util.function.IntPredicate;
+
+// Exact cosine search. Rows are normalised once into a single row-major array, so scoring is one
+// VectorMath.dotProduct per row with no per-row allocation. Batched queries walk the rows in blocks
+// small enough to stay in cache while every query in the batch is scored against them.
+public class BruteForceIndex implements VectorIndex {
+    static final int BLOCK_ROWS = 512; // 512 x 50 doubles = 200KB, about one L2
+
+    private final int intDimension;
+    private final int intSize;
+    private final double[] unitRows;
+
+    // _rows is row-major (size x _dimension) and is copied; all-zero rows score 0 against everything
+    public BruteForceIndex(double[] _rows, int _dimension) {
+        if (_dimension <= 0 || _rows.length % _dimension != 0) {
+            throw new IllegalArgumentException("Row data length " + _rows.length + " is not a multiple of " + _dimension);
+        }
+        intDimension = _dimension;
+        intSize = _rows.length / _dimension;
+        unitRows = _rows.clone();
+        for (int row = 0; row < intSize; row++) {
+            normalise(unitRows, row * intDimension, intDimension);
+        }
+    }
+
+    public static BruteForceIndex fromTable(EmbeddingTable _table) {
+        int dimension = _table.getDimension();
+        double[] rows = new double[_table.size() * dimension];
+        for (int row = 0; row < _table.size(); row++) {
+            _table.copyRow(row, rows, row * dimension);
+        }
+        return new BruteForceIndex(rows, dimension);
+    }
+
+    // One row per article, in list order; every article must already have (or be able to build) its embedding
+    public static BruteForceIndex fromArticles(List<ArticlesEmbedding> _articles) throws Exception {
+        int dimension = -1;
+        double[] rows = null;
+        for (int i = 0; i < _articles.size(); i++) {
+            double[] embedding = _articles.get(i).getEmbedding().toDoubleVector();
+            if (rows == null) {
+                dimension = embedding.length;
+                rows = new double[_articles.size() * dimension];
+            } else if (embedding.length != dimension) {
+                throw new IllegalArgumentException("Article " + i + " has " + embedding.length + " dimensions, expected " + dimension);
+            }
+            System.arraycopy(embedding, 0, rows, i * dimension, dimension);
+        }
+        if (rows == null) {
+            throw new IllegalArgumentException("No articles to index");
+        }
+        return new BruteForceIndex(rows, dimension);
+    }
+
+    @Override
+    public int size() {
+        return intSize;
+    }
+
+    @Override
+    public int getDimension() {
+        return intDimension;
+    }
+
+    @Override
+    public TopK search(double[] _query, int _k, IntPredicate _exclude) {
+        return search(new double[][]{_query}, _k, _exclude)[0];
+    }
+
+    public TopK[] search(double[][] _queries, int _k, IntPredicate _exclude) {
+        double[][] unitQueries = new double[_queries.length][];
+        TopK[] results = new TopK[_queries.length];
+        for (int q = 0; q < _queries.length; q++) {
+            unitQueries[q] = unitQuery(_queries[q], intDimension);
+            results[q] = new TopK(_k);
+        }
+        for (int blockStart = 0; blockStart < intSize; blockStart += BLOCK_ROWS) {
+            int blockEnd = Math.min(intSize, blockStart + BLOCK_ROWS);
+            for (int q = 0; q < unitQueries.length; q++) {
+                scanRows(unitRows, unitQueries[q], intDimension, blockStart, blockEnd, null, _exclude, results[q]);
+            }
+        }
+        return results;
+    }
+
+    double[] getUnitRows() {
+        return unitRows;
+    }
+
+    // Scores rows [_from, _to) of _rows; _ids maps a row position to its id (null means the position is the id)
+    static void scanRows(double[] _rows, double[] _unitQuery, int _dimension, int _from, int _to,
+                         int[] _ids, IntPredicate _exclude, TopK _result) {
+        for (int row = _from; row < _to; row++) {
+            int id = _ids == null ? row : _ids[row];
+            if (_exclude != null && _exclude.test(id)) {
+                continue;
+            }
+            _result.offer(id, VectorMath.dotProduct(_rows, row * _dimension, _unitQuery, 0, _dimension));
+        }
+    }
+
+    static double[] unitQuery(double[] _query, int _dimension) {
+        if (_query.length != _dimension) {
+            throw new IllegalArgumentException("Query has " + _query.length + " dimensions, expected " + _dimension);
+        }
+        double[] unit = _query.clone();
+        normalise(unit, 0, _dimension);
+        return unit;
+    }
+
+    static void normalise(double[] _rows, int _offset, int _dimension) {
+        double norm = Math.sqrt(VectorMath.dotProduct(_rows, _offset, _rows, _offset, _dimension));
+        if (norm == 0) {
+            return;
+        }
+        for (int i = _offset; i < _offset + _dimension; i++) {
+            _rows[i] /= norm;
+        }
+    }
+}
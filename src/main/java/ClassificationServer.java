@@ -0,0 +1,331 @@
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Embedded HTTP front end for a trained model.
+//   POST /classify  {"title": ..., "content": ...} or {"html": ...} for one article, a JSON array of those
+//                   (or {"articles": [...]}) for several, or a raw news page with a text/html content type
+//   GET  /stats     request/article counts, p50/p99 latency, micro-batch sizes and articles per second
+//   GET  /metrics   pipeline stage metrics (Metrics.getGlobal()) as Prometheus text, or JSON with ?format=json
+// Cleaning and embedding run on the request thread; only the forward pass goes through the micro-batcher,
+// so concurrent requests share one predict call.
+public class ClassificationServer implements AutoCloseable {
+    public static final long PREDICT_TIMEOUT_SECONDS = 30;
+    public static final int DEFAULT_MAX_BODY_BYTES = 16 * 1024 * 1024;
+    private static final int QUEUE_PER_THREAD = 64;
+
+    private final HttpServer server;
+    private final ThreadPoolExecutor executor;
+    private final ClassifierContext context;
+    private final MicroBatcher batcher;
+    private final int intEmbeddingSize;
+    private final String[] labels;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder articles = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final long longStartNanos = System.nanoTime();
+    private volatile int intMaxBodyBytes = DEFAULT_MAX_BODY_BYTES;
+
+    // Requests are embedded with _context; _labels[i] is reported for class index i; the server owns _batcher
+    // and closes it on close()
+    public ClassificationServer(ClassifierContext _context, MicroBatcher _batcher, int _embeddingSize, String[] _labels,
+                                InetSocketAddress _address, int _threads) throws IOException {
+        context = _context;
+        batcher = _batcher;
+        intEmbeddingSize = _embeddingSize;
+        labels = _labels.clone();
+        int threads = Math.max(1, _threads);
+        AtomicInteger threadCount = new AtomicInteger();
+        // Java 17 has no virtual threads, so handlers run on a bounded pool. When its queue is full the
+        // accepting thread runs the request itself, which stops it accepting more until one finishes.
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * QUEUE_PER_THREAD), runnable -> {
+            Thread thread = new Thread(runnable, "http-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        server = HttpServer.create(_address, 0);
+        server.setExecutor(executor);
+        server.createContext("/classify", this::handleClassify);
+        server.createContext("/stats", this::handleStats);
+        server.createContext("/metrics", this::handleMetrics);
+        server.start();
+    }
+
+    public static ClassificationServer start(AdvancedNewsClassifier _classifier, ModelBundle _bundle, int _port,
+                                             int _threads, int _maxBatchSize, long _maxDelayMillis) throws IOException {
+        _classifier.loadModel(_bundle);
+        String[] labels = new String[_bundle.getNumberOfClasses()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = _bundle.getLabel(i);
+        }
+        MicroBatcher batcher = new MicroBatcher(_classifier::predictBatch, _maxBatchSize, _maxDelayMillis);
+        return new ClassificationServer(_classifier.getContext(), batcher, _bundle.getEmbeddingSize(), labels, new InetSocketAddress(_port), _threads);
+    }
+
+    // Usage: ClassificationServer --model <bundle.zip> [--port 8080] [--threads n] [--max-batch 64] [--max-delay-ms 5]
+    //                            [--max-body-bytes 16777216]
+    public static void main(String[] args) throws Exception {
+        String modelFile = null;
+        int port = 8080;
+        int threads = Runtime.getRuntime().availableProcessors() * 4;
+        int maxBatchSize = 64;
+        long maxDelayMillis = 5;
+        int maxBodyBytes = DEFAULT_MAX_BODY_BYTES;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--model" -> modelFile = args[i + 1];
+                case "--port" -> port = Integer.parseInt(args[i + 1]);
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "--max-batch" -> maxBatchSize = Integer.parseInt(args[i + 1]);
+                case "--max-delay-ms" -> maxDelayMillis = Long.parseLong(args[i + 1]);
+                case "--max-body-bytes" -> maxBodyBytes = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (modelFile == null) {
+            throw new IllegalArgumentException("--model <bundle.zip> is required");
+        }
+        ModelBundle bundle = ModelBundle.load(new File(modelFile));
+        ClassificationServer server = start(new AdvancedNewsClassifier(), bundle, port, threads, maxBatchSize, maxDelayMillis)
+                .setMaxBodyBytes(maxBodyBytes);
+        System.out.println("Listening on port " + server.getPort());
+        Thread.currentThread().join();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    // Larger /classify bodies are rejected with 413 before they are buffered
+    public ClassificationServer setMaxBodyBytes(int _maxBodyBytes) {
+        if (_maxBodyBytes < 1) {
+            throw new IllegalArgumentException("Maximum body size must be positive: " + _maxBodyBytes);
+        }
+        intMaxBodyBytes = _maxBodyBytes;
+        return this;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        batcher.close();
+        executor.shutdownNow();
+    }
+
+    private void handleClassify(HttpExchange _exchange) throws IOException {
+        long start = System.nanoTime();
+        try {
+            if (!"POST".equals(_exchange.getRequestMethod())) {
+                send(_exchange, 405, error("Use POST"));
+                return;
+            }
+            requests.increment();
+            byte[] body = readBody(_exchange, intMaxBodyBytes);
+            if (body == null) {
+                errors.increment();
+                send(_exchange, 413, error("Request body exceeds " + intMaxBodyBytes + " bytes"));
+                return;
+            }
+            List<NewsArticles> news = new ArrayList<>();
+            boolean bulk = parseRequest(_exchange, body, news);
+            if (news.isEmpty()) {
+                throw new IllegalArgumentException("No articles in request");
+            }
+
+            List<ArticlesEmbedding> batch = new ArrayList<>(news.size());
+            for (NewsArticles item : news) {
+                if (HtmlParser.CONTENT_NOT_FOUND.equals(item.getNewsContent())) {
+                    throw new IllegalArgumentException("No article body found: " + item.getNewsTitle());
+                }
+                ArticlesEmbedding article = new ArticlesEmbedding(context, item.getNewsTitle(), item.getNewsContent(), NewsArticles.DataType.Testing, "-1");
+                article.setEmbeddingSize(intEmbeddingSize);
+                article.getNewsContent();
+                try {
+                    article.getEmbedding();
+                } catch (InvalidTextException e) {
+                    throw new IllegalArgumentException("Article has no usable text: " + item.getNewsTitle());
+                }
+                batch.add(article);
+            }
+
+            int[] classes;
+            try {
+                classes = batcher.submit(batch).get(PREDICT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                errors.increment();
+                send(_exchange, 503, error("Prediction timed out"));
+                return;
+            } catch (ExecutionException e) {
+                errors.increment();
+                send(_exchange, 503, error("Prediction failed: " + e.getCause().getMessage()));
+                return;
+            }
+            articles.add(classes.length);
+
+            JsonArray results = new JsonArray();
+            for (int i = 0; i < classes.length; i++) {
+                JsonObject result = new JsonObject();
+                result.addProperty("title", batch.get(i).getNewsTitle());
+                result.addProperty("label", classes[i] < labels.length ? labels[classes[i]] : String.valueOf(classes[i]));
+                result.addProperty("classIndex", classes[i]);
+                results.add(result);
+            }
+            JsonElement response = results.get(0);
+            if (bulk) {
+                JsonObject wrapper = new JsonObject();
+                wrapper.add("results", results);
+                response = wrapper;
+            }
+            send(_exchange, 200, response);
+            latency.recordNanos(System.nanoTime() - start);
+        } catch (IllegalArgumentException | JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+            errors.increment();
+            send(_exchange, 400, error(e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errors.increment();
+            send(_exchange, 503, error("Interrupted"));
+        } catch (Exception e) {
+            errors.increment();
+            send(_exchange, 500, error(String.valueOf(e.getMessage())));
+        } finally {
+            _exchange.close();
+        }
+    }
+
+    // Fills _news and returns whether the request was a bulk one
+    private static boolean parseRequest(HttpExchange _exchange, byte[] _body, List<NewsArticles> _news) {
+        String contentType = _exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType != null && contentType.toLowerCase().contains("html")) {
+            _news.add(HtmlExtractor.extract(ByteBuffer.wrap(_body)));
+            return false;
+        }
+        JsonElement json = new JsonParser().parse(new String(_body, StandardCharsets.UTF_8));
+        if (json.isJsonObject() && json.getAsJsonObject().has("articles")) {
+            json = json.getAsJsonObject().get("articles");
+        }
+        if (json.isJsonArray()) {
+            for (JsonElement item : json.getAsJsonArray()) {
+                _news.add(toArticle(item));
+            }
+            return true;
+        }
+        _news.add(toArticle(json));
+        return false;
+    }
+
+    private static NewsArticles toArticle(JsonElement _json) {
+        if (!_json.isJsonObject()) {
+            throw new IllegalArgumentException("Expected an article object, got " + _json);
+        }
+        JsonObject object = _json.getAsJsonObject();
+        if (object.has("html")) {
+            return HtmlExtractor.extract(object.get("html").getAsString());
+        }
+        if (!object.has("content")) {
+            throw new IllegalArgumentException("Article needs \"content\" or \"html\"");
+        }
+        String title = object.has("title") ? object.get("title").getAsString() : "";
+        return new NewsArticles(title, object.get("content").getAsString(), NewsArticles.DataType.Testing, "-1");
+    }
+
+    private void handleStats(HttpExchange _exchange) throws IOException {
+        try {
+            if (!"GET".equals(_exchange.getRequestMethod())) {
+                send(_exchange, 405, error("Use GET"));
+                return;
+            }
+            double seconds = (System.nanoTime() - longStartNanos) / 1e9;
+            JsonObject stats = new JsonObject();
+            stats.addProperty("requests", requests.sum());
+            stats.addProperty("articles", articles.sum());
+            stats.addProperty("errors", errors.sum());
+            stats.addProperty("batches", batcher.getBatchCount());
+            stats.addProperty("averageBatchSize", batcher.getAverageBatchSize());
+            stats.addProperty("latencyP50Millis", latency.getPercentileMillis(50));
+            stats.addProperty("latencyP99Millis", latency.getPercentileMillis(99));
+            stats.addProperty("latencyMeanMillis", latency.getMeanMillis());
+            stats.addProperty("articlesPerSecond", seconds > 0 ? articles.sum() / seconds : 0);
+            stats.addProperty("uptimeSeconds", seconds);
+            send(_exchange, 200, stats);
+        } finally {
+            _exchange.close();
+        }
+    }
+
+    private void handleMetrics(HttpExchange _exchange) throws IOException {
+        try {
+            if (!"GET".equals(_exchange.getRequestMethod())) {
+                send(_exchange, 405, error("Use GET"));
+                return;
+            }
+            String query = _exchange.getRequestURI().getQuery();
+            if (query != null && query.contains("format=json")) {
+                send(_exchange, 200, Metrics.getGlobal().toJson());
+                return;
+            }
+            byte[] bytes = Metrics.getGlobal().toPrometheus().getBytes(StandardCharsets.UTF_8);
+            _exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            _exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = _exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            _exchange.close();
+        }
+    }
+
+    // null when the body is longer than _maxBytes; a declared Content-Length over the limit is not read at all
+    private static byte[] readBody(HttpExchange _exchange, int _maxBytes) throws IOException {
+        String contentLength = _exchange.getRequestHeaders().getFirst("Content-Length");
+        try (InputStream in = _exchange.getRequestBody()) {
+            if (contentLength != null && Long.parseLong(contentLength.trim()) > _maxBytes) {
+                return null;
+            }
+            byte[] body = in.readNBytes(_maxBytes + 1); // chunked bodies have no length up front
+            return body.length > _maxBytes ? null : body;
+        }
+    }
+
+    private static JsonObject error(String _message) {
+        JsonObject error = new JsonObject();
+        error.addProperty("error", _message);
+        return error;
+    }
+
+    private static void send(HttpExchange _exchange, int _status, JsonElement _body) throws IOException {
+        byte[] bytes = _body.toString().getBytes(StandardCharsets.UTF_8);
+        _exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        _exchange.sendResponseHeaders(_status, bytes.length);
+        try (OutputStream out = _exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
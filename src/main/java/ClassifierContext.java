@@ -0,0 +1,191 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+// Everything an article reads while it is cleaned and embedded: the GloVe table (with the rows of stop words
+// masked out), the stop word filter, the pooling strategy and the optional lemma cache. Immutable, so one
+// context can be shared by any number of classifiers and threads, and classifiers with different contexts
+// (models, vocabularies, languages) can run side by side in one JVM. withPoolingStrategy/withLemmaCache
+// return copies that keep sharing the vocabulary, which is the large part.
+public final class ClassifierContext {
+    private static final Object DEFAULT_LOCK = new Object();
+    private static volatile ClassifierContext defaultContext = null;
+
+    private final Vocabulary vocabulary;
+    private final PoolingStrategy poolingStrategy;
+    private final LemmaCache lemmaCache; // null: lemmas are exactly what the full pipeline gives
+
+    private ClassifierContext(Vocabulary _vocabulary, PoolingStrategy _poolingStrategy, LemmaCache _lemmaCache) {
+        vocabulary = _vocabulary;
+        poolingStrategy = _poolingStrategy;
+        lemmaCache = _lemmaCache;
+    }
+
+    // The bundled GloVe vocabulary with the default stop words and per-word-mean pooling, loaded once per JVM
+    // on first use and shared by every classifier created without a context of its own
+    public static ClassifierContext getDefault() throws IOException {
+        ClassifierContext context = defaultContext;
+        if (context == null) {
+            synchronized (DEFAULT_LOCK) {
+                context = defaultContext;
+                if (context == null) {
+                    Toolkit toolkit = new Toolkit();
+                    toolkit.loadGlove();
+                    context = create(toolkit, Toolkit.STOPWORD_FILTER);
+                    defaultContext = context;
+                }
+            }
+        }
+        return context;
+    }
+
+    // The default context if something already loaded it, otherwise null; never loads
+    static ClassifierContext peekDefault() {
+        return defaultContext;
+    }
+
+    // Builds the lookup table from _toolkit's loaded GloVe vectors. A memory-mapped store is used in place with
+    // _stopWords' rows masked; CSV vectors are copied into a table without them.
+    public static ClassifierContext create(Toolkit _toolkit, StopWordFilter _stopWords) {
+        BitSet excludedRows = new BitSet();
+        GloveStore gloveStore = _toolkit.getGloveStore();
+        if (gloveStore != null) {
+            for (String stopWord : _stopWords.getWords()) {
+                int row = gloveStore.indexOf(stopWord);
+                if (row != EmbeddingTable.NOT_FOUND) {
+                    excludedRows.set(row);
+                }
+            }
+            return new ClassifierContext(new Vocabulary(gloveStore, excludedRows, _stopWords), PoolingStrategy.PER_WORD_MEAN, null);
+        }
+        List<String> listVocabulary = _toolkit.getListVocabulary();
+        List<double[]> listVectors = _toolkit.getlistVectors();
+        if (listVocabulary == null || listVocabulary.isEmpty()) {
+            throw new IllegalStateException("Toolkit has no GloVe vectors loaded");
+        }
+        ArrayEmbeddingTable table = new ArrayEmbeddingTable(listVocabulary.size(), listVectors.get(0).length);
+        for (int i = 0; i < listVocabulary.size(); i++) {
+            String word = listVocabulary.get(i);
+            if (!_stopWords.isStopWord(word)) {
+                table.put(word.toLowerCase(), listVectors.get(i));
+            }
+        }
+        return new ClassifierContext(new Vocabulary(table, excludedRows, _stopWords), PoolingStrategy.PER_WORD_MEAN, null);
+    }
+
+    public ClassifierContext withPoolingStrategy(PoolingStrategy _strategy) {
+        return new ClassifierContext(vocabulary, _strategy, lemmaCache);
+    }
+
+    // null turns the cache off
+    public ClassifierContext withLemmaCache(LemmaCache _cache) {
+        return new ClassifierContext(vocabulary, poolingStrategy, _cache);
+    }
+
+    public EmbeddingTable getEmbeddingTable() {
+        return vocabulary.table;
+    }
+
+    public StopWordFilter getStopWordFilter() {
+        return vocabulary.stopWords;
+    }
+
+    public PoolingStrategy getPoolingStrategy() {
+        return poolingStrategy;
+    }
+
+    public LemmaCache getLemmaCache() {
+        return lemmaCache;
+    }
+
+    // True when token ids resolved against _other are valid here as well
+    boolean sharesVocabulary(ClassifierContext _other) {
+        return _other != null && _other.vocabulary == vocabulary;
+    }
+
+    // True when an article embedded under _other gets the same row here: same vocabulary and pooling
+    boolean embedsLike(ClassifierContext _other) {
+        return sharesVocabulary(_other) && _other.poolingStrategy == poolingStrategy;
+    }
+
+    public String getVocabularyFingerprint() {
+        String fingerprint = vocabulary.fingerprint;
+        if (fingerprint == null) {
+            // Racing threads compute the same value, so the last write wins harmlessly
+            fingerprint = ModelBundle.vocabularyFingerprint(vocabulary.table, row -> !vocabulary.excludedRows.get(row));
+            vocabulary.fingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    public int getWordIndex(String word) {
+        int row = vocabulary.table.indexOf(word.toLowerCase());
+        if (row != EmbeddingTable.NOT_FOUND && vocabulary.excludedRows.get(row)) {
+            return EmbeddingTable.NOT_FOUND;
+        }
+        return row;
+    }
+
+    // Rows for tokens that are already lower-cased (as ArticlesEmbedding produces them), without
+    // getWordIndex's per-lookup toLowerCase; stopword rows map to NOT_FOUND as well
+    public int[] getTokenIds(String[] _tokens) {
+        EmbeddingTable table = vocabulary.table;
+        BitSet excludedRows = vocabulary.excludedRows;
+        int[] ids = new int[_tokens.length];
+        for (int i = 0; i < _tokens.length; i++) {
+            int row = table.indexOf(_tokens[i]);
+            ids[i] = row != EmbeddingTable.NOT_FOUND && excludedRows.get(row) ? EmbeddingTable.NOT_FOUND : row;
+        }
+        return ids;
+    }
+
+    // The _k vocabulary words closest to _word by cosine similarity (excluding itself and stopwords), e.g. for
+    // query expansion; empty if _word is not in the vocabulary. The exact index is built on first use.
+    public List<String> nearestWords(String _word, int _k) {
+        int row = getWordIndex(_word);
+        List<String> listResult = new ArrayList<>();
+        if (row == EmbeddingTable.NOT_FOUND) {
+            return listResult;
+        }
+        EmbeddingTable table = vocabulary.table;
+        VectorIndex wordIndex = vocabulary.wordIndex;
+        if (wordIndex == null) {
+            wordIndex = BruteForceIndex.fromTable(table);
+            vocabulary.wordIndex = wordIndex;
+        }
+        double[] query = new double[table.getDimension()];
+        table.copyRow(row, query, 0);
+        for (int id : wordIndex.search(query, _k, id -> id == row || vocabulary.excludedRows.get(id)).getIds()) {
+            listResult.add(table.getWord(id));
+        }
+        return listResult;
+    }
+
+    // Materialises a Glove for callers that need one; hot paths should use getWordIndex instead
+    public Glove getGloveByWord(String word) {
+        int row = getWordIndex(word);
+        if (row == EmbeddingTable.NOT_FOUND) {
+            return null;
+        }
+        EmbeddingTable table = vocabulary.table;
+        double[] vector = new double[table.getDimension()];
+        table.copyRow(row, vector, 0);
+        return new Glove(table.getWord(row), new Vector(vector));
+    }
+
+    // The read-only part shared by every copy made with with*; the two lazy fields are derived from the table
+    private static final class Vocabulary {
+        private final EmbeddingTable table; // O(1) row lookup, no per-word objects
+        private final BitSet excludedRows; // stopword rows of a shared GloVe store, never modified after construction
+        private final StopWordFilter stopWords;
+        private volatile String fingerprint = null;
+        private volatile VectorIndex wordIndex = null; // built on first nearestWords call
+
+        private Vocabulary(EmbeddingTable _table, BitSet _excludedRows, StopWordFilter _stopWords) {
+            table = _table;
+            excludedRows = _excludedRows;
+            stopWords = _stopWords;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Persistent document-embedding cache: one file per entry, keyed by a hash of the raw article content,
+// the embedding size and the vocabulary version. Bounded by total bytes with LRU eviction; recency
+// survives restarts through file modification times.
+public class EmbeddingCache {
+    private static final String SUFFIX = ".emb";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true); // key -> bytes, LRU order
+    private long totalBytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+
+    public EmbeddingCache(Path _directory, long _maxBytes) throws IOException {
+        directory = _directory;
+        maxBytes = _maxBytes;
+        Files.createDirectories(_directory);
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(_directory, "*" + SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        files.sort((f1, f2) -> lastModified(f1).compareTo(lastModified(f2)));
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long size = Files.size(file);
+            entries.put(name.substring(0, name.length() - SUFFIX.length()), size);
+            totalBytes += size;
+        }
+        evict();
+    }
+
+    private static FileTime lastModified(Path _file) {
+        try {
+            return Files.getLastModifiedTime(_file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    public static String key(String _rawContent, int _embeddingSize, String _vocabularyVersion) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((_embeddingSize + "|" + _vocabularyVersion + "|").getBytes(StandardCharsets.UTF_8));
+            digest.update(_rawContent.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Returns the cached embedding or null on a miss
+    public synchronized float[] get(String _key) {
+        if (entries.get(_key) == null) {
+            misses++;
+            return null;
+        }
+        Path file = fileFor(_key);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            float[] embedding = new float[in.readInt()];
+            for (int i = 0; i < embedding.length; i++) {
+                embedding[i] = in.readFloat();
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            hits++;
+            return embedding;
+        } catch (IOException e) {
+            remove(_key); // unreadable or deleted externally: treat as a miss
+            misses++;
+            return null;
+        }
+    }
+
+    public synchronized void put(String _key, float[] _embedding) throws IOException {
+        Path file = fileFor(_key);
+        Path temp = directory.resolve(_key + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(_embedding.length);
+            for (float value : _embedding) {
+                out.writeFloat(value);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Long previous = entries.put(_key, Files.size(file));
+        totalBytes += entries.get(_key) - (previous == null ? 0 : previous);
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            try {
+                Files.deleteIfExists(fileFor(entry.getKey()));
+            } catch (IOException e) {
+                System.err.println("Error evicting cached embedding " + entry.getKey());
+            }
+            totalBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    private void remove(String _key) {
+        Long size = entries.remove(_key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    private Path fileFor(String _key) {
+        return directory.resolve(_key + SUFFIX);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
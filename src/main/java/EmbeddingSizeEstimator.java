@@ -0,0 +1,86 @@
+import java.util.Arrays;
+
+// Running median of per-article GloVe hit counts, updated as articles are preprocessed instead of collecting
+// and sorting every count afterwards. Counts are small non-negative integers, so an exact histogram (one slot
+// per count, grown on demand) is both cheaper than a sketch and gives exactly the sorted-array answer.
+// Estimators from different threads or shards merge by adding their histograms.
+public class EmbeddingSizeEstimator {
+    private long[] counts = new long[256];
+    private long longTotal = 0;
+
+    public synchronized void add(int _knownWords) {
+        if (_knownWords < 0) {
+            throw new IllegalArgumentException("Negative word count: " + _knownWords);
+        }
+        if (_knownWords >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(counts.length * 2, _knownWords + 1));
+        }
+        counts[_knownWords]++;
+        longTotal++;
+    }
+
+    public void merge(EmbeddingSizeEstimator _other) {
+        long[] other = _other.getCounts();
+        synchronized (this) {
+            if (other.length > counts.length) {
+                counts = Arrays.copyOf(counts, other.length);
+            }
+            for (int i = 0; i < other.length; i++) {
+                counts[i] += other[i];
+                longTotal += other[i];
+            }
+        }
+    }
+
+    public synchronized long getCount() {
+        return longTotal;
+    }
+
+    // Histogram snapshot: element i is the number of articles with i known words, up to the largest count seen
+    public synchronized long[] getCounts() {
+        int length = counts.length;
+        while (length > 0 && counts[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.copyOf(counts, length);
+    }
+
+    public static EmbeddingSizeEstimator fromCounts(long[] _counts) {
+        EmbeddingSizeEstimator estimator = new EmbeddingSizeEstimator();
+        for (int i = 0; i < _counts.length; i++) {
+            if (_counts[i] < 0) {
+                throw new IllegalArgumentException("Negative histogram count at " + i);
+            }
+        }
+        estimator.counts = Arrays.copyOf(_counts, Math.max(_counts.length, 1));
+        estimator.longTotal = Arrays.stream(_counts).sum();
+        return estimator;
+    }
+
+    // Same value calculateEmbeddingSize has always produced from the sorted counts s: (s[n/2] + s[n/2 + 1]) / 2
+    // for even n and s[(n + 1) / 2] for odd n. Ranks past the end (n < 3) are clamped to the largest count
+    // rather than failing. -1 when nothing has been added.
+    public synchronized int getEmbeddingSize() {
+        long n = longTotal;
+        if (n == 0) {
+            return -1;
+        }
+        if (n % 2 == 0) {
+            return (valueAtRank(n / 2) + valueAtRank(n / 2 + 1)) / 2;
+        }
+        return valueAtRank((n + 1) / 2);
+    }
+
+    // Value at 0-based position _rank of the sorted counts
+    private int valueAtRank(long _rank) {
+        long rank = Math.min(_rank, longTotal - 1);
+        long seen = 0;
+        for (int value = 0; value < counts.length; value++) {
+            seen += counts[value];
+            if (seen > rank) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Histogram total out of sync");
+    }
+}
@@ -0,0 +1,17 @@
+// Word -> row lookup over a single contiguous vector matrix. Lookups return a row index
+// (or NOT_FOUND) rather than allocating a Glove/Vector per word.
+public interface EmbeddingTable {
+    int NOT_FOUND = -1;
+
+    int size();
+
+    int getDimension();
+
+    int indexOf(CharSequence _word);
+
+    String getWord(int _row);
+
+    double getElement(int _row, int _column);
+
+    void copyRow(int _row, double[] _destination, int _offset);
+}
@@ -0,0 +1,280 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Read-only, memory-mapped GloVe table. Layout (little-endian):
+// header | float matrix (size x dimension) | word offsets (size + 1 ints) | open-addressing index | UTF-16 word chars
+public class GloveStore implements EmbeddingTable {
+    private static final int MAGIC = 0x474C5645; // "GLVE"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int EMPTY_SLOT = -1;
+
+    private final int intSize;
+    private final int intDimension;
+    private final int intIndexMask;
+    private final FloatBuffer matrix;
+    private final IntBuffer wordOffsets;
+    private final IntBuffer index;
+    private final CharBuffer chars;
+
+    private GloveStore(MappedByteBuffer _buffer) throws IOException {
+        _buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (_buffer.getInt(0) != MAGIC || _buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a GloVe store (bad magic or version)");
+        }
+        intSize = _buffer.getInt(8);
+        intDimension = _buffer.getInt(12);
+        int indexCapacity = _buffer.getInt(16);
+        intIndexMask = indexCapacity - 1;
+        matrix = section(_buffer, _buffer.getLong(24)).asFloatBuffer();
+        wordOffsets = section(_buffer, _buffer.getLong(32)).asIntBuffer();
+        index = section(_buffer, _buffer.getLong(40)).asIntBuffer();
+        chars = section(_buffer, _buffer.getLong(48)).asCharBuffer();
+    }
+
+    private static ByteBuffer section(ByteBuffer _buffer, long _offset) {
+        return _buffer.duplicate().position((int) _offset).slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public static GloveStore open(Path _binary) throws IOException {
+        try (FileChannel channel = FileChannel.open(_binary, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("GloVe store too large to map: " + channel.size() + " bytes");
+            }
+            // The mapping stays valid after the channel is closed and is shared through the page cache
+            return new GloveStore(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    @Override
+    public int size() {
+        return intSize;
+    }
+
+    @Override
+    public int getDimension() {
+        return intDimension;
+    }
+
+    @Override
+    public int indexOf(CharSequence _word) {
+        int slot = hash(_word) & intIndexMask;
+        while (true) {
+            int row = index.get(slot);
+            if (row == EMPTY_SLOT) {
+                return NOT_FOUND;
+            }
+            if (wordEquals(row, _word)) {
+                return row;
+            }
+            slot = (slot + 1) & intIndexMask;
+        }
+    }
+
+    private boolean wordEquals(int _row, CharSequence _word) {
+        int start = wordOffsets.get(_row);
+        int length = wordOffsets.get(_row + 1) - start;
+        if (length != _word.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (chars.get(start + i) != _word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String getWord(int _row) {
+        int start = wordOffsets.get(_row);
+        char[] word = new char[wordOffsets.get(_row + 1) - start];
+        chars.get(start, word);
+        return new String(word);
+    }
+
+    @Override
+    public double getElement(int _row, int _column) {
+        return matrix.get(_row * intDimension + _column);
+    }
+
+    @Override
+    public void copyRow(int _row, double[] _destination, int _offset) {
+        int offset = _row * intDimension;
+        for (int i = 0; i < intDimension; i++) {
+            _destination[_offset + i] = matrix.get(offset + i);
+        }
+    }
+
+    // Lazy views matching Toolkit's list API; rows are only materialised when accessed
+    public List<String> asVocabularyList() {
+        return new AbstractList<>() {
+            @Override
+            public String get(int _row) {
+                return getWord(_row);
+            }
+
+            @Override
+            public int size() {
+                return intSize;
+            }
+        };
+    }
+
+    public List<double[]> asVectorList() {
+        return new AbstractList<>() {
+            @Override
+            public double[] get(int _row) {
+                double[] vector = new double[intDimension];
+                copyRow(_row, vector, 0);
+                return vector;
+            }
+
+            @Override
+            public int size() {
+                return intSize;
+            }
+        };
+    }
+
+    // FNV-1a over UTF-16 code units, so lookups never need to encode the query
+    private static int hash(CharSequence _word) {
+        int h = 0x811C9DC5;
+        for (int i = 0; i < _word.length(); i++) {
+            h ^= _word.charAt(i);
+            h *= 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    // One-time conversion from the "word,v1,...,vn" CSV format read by Toolkit.loadGlove.
+    public static void convert(Path _csv, Path _binary) throws IOException {
+        List<String> vocabulary = new ArrayList<>();
+        int dimension = -1;
+        try (BufferedReader myReader = Files.newBufferedReader(_csv, StandardCharsets.UTF_8)) {
+            String data;
+            while ((data = myReader.readLine()) != null) {
+                int firstComma = data.indexOf(',');
+                if (firstComma < 0) {
+                    continue;
+                }
+                if (dimension == -1) {
+                    dimension = data.split(",").length - 1;
+                }
+                vocabulary.add(data.substring(0, firstComma));
+            }
+        }
+        if (vocabulary.isEmpty()) {
+            throw new IOException("No GloVe rows found in " + _csv);
+        }
+
+        int size = vocabulary.size();
+        int indexCapacity = Integer.highestOneBit(Math.max(2, size * 2 - 1)) << 1; // load factor <= 0.5
+        long matrixOffset = HEADER_BYTES;
+        long offsetsOffset = matrixOffset + (long) size * dimension * Float.BYTES;
+        long indexOffset = offsetsOffset + (long) (size + 1) * Integer.BYTES;
+        long charsOffset = indexOffset + (long) indexCapacity * Integer.BYTES;
+
+        try (FileChannel channel = FileChannel.open(_binary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(dimension).putInt(indexCapacity).putInt(0);
+            header.putLong(matrixOffset).putLong(offsetsOffset).putLong(indexOffset).putLong(charsOffset);
+            header.clear();
+            channel.write(header, 0);
+
+            channel.position(matrixOffset);
+            writeMatrix(_csv, channel, size, dimension);
+
+            ByteBuffer offsets = ByteBuffer.allocate((size + 1) * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            int charCount = 0;
+            for (String word : vocabulary) {
+                offsets.putInt(charCount);
+                charCount += word.length();
+            }
+            offsets.putInt(charCount);
+            offsets.flip();
+            channel.write(offsets, offsetsOffset);
+
+            int[] slots = new int[indexCapacity];
+            Arrays.fill(slots, EMPTY_SLOT);
+            for (int row = 0; row < size; row++) {
+                String word = vocabulary.get(row);
+                int slot = hash(word) & (indexCapacity - 1);
+                boolean duplicate = false;
+                while (slots[slot] != EMPTY_SLOT) {
+                    if (vocabulary.get(slots[slot]).equals(word)) {
+                        duplicate = true; // first occurrence wins
+                        break;
+                    }
+                    slot = (slot + 1) & (indexCapacity - 1);
+                }
+                if (!duplicate) {
+                    slots[slot] = row;
+                }
+            }
+            ByteBuffer indexBytes = ByteBuffer.allocate(indexCapacity * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            indexBytes.asIntBuffer().put(slots);
+            channel.write(indexBytes, indexOffset);
+
+            ByteBuffer charBytes = ByteBuffer.allocate(charCount * Character.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            CharBuffer charView = charBytes.asCharBuffer();
+            for (String word : vocabulary) {
+                charView.put(word);
+            }
+            channel.write(charBytes, charsOffset);
+        }
+    }
+
+    private static void writeMatrix(Path _csv, FileChannel _channel, int _size, int _dimension) throws IOException {
+        ByteBuffer row = ByteBuffer.allocate(_dimension * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        int rowCount = 0;
+        try (BufferedReader myReader = Files.newBufferedReader(_csv, StandardCharsets.UTF_8)) {
+            String data;
+            while ((data = myReader.readLine()) != null && rowCount < _size) {
+                if (data.indexOf(',') < 0) {
+                    continue;
+                }
+                String[] dataArray = data.split(",");
+                if (dataArray.length - 1 != _dimension) {
+                    throw new IOException("Inconsistent vector width on row " + rowCount + ": " + (dataArray.length - 1));
+                }
+                row.clear();
+                for (int i = 1; i < dataArray.length; i++) {
+                    row.putFloat(Float.parseFloat(dataArray[i]));
+                }
+                row.flip();
+                while (row.hasRemaining()) {
+                    _channel.write(row);
+                }
+                rowCount++;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: GloveStore <glove.csv> <glove.bin>");
+            System.exit(1);
+        }
+        convert(Paths.get(args[0]), Paths.get(args[1]));
+        GloveStore store = open(Paths.get(args[1]));
+        System.out.printf("Converted %,d words x %d dimensions to %s%n", store.size(), store.getDimension(), args[1]);
+    }
+}
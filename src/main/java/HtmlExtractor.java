@@ -0,0 +1,174 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Single-pass alternative to calling the four HtmlParser getters: one scan records the first
+// occurrence of every marker and stops as soon as all of them have been seen. Works directly on
+// UTF-8 bytes (heap or memory-mapped), so only the four field slices are ever decoded.
+public class HtmlExtractor {
+    private static final String[] MARKERS = {
+            "<title>", "</title>",
+            "\"articleBody\": \"", " \",\"mainEntityOfPage\":",
+            "<datatype>", "</datatype>",
+            "<label>", "</label>"
+    };
+    private static final int TITLE = 0, CONTENT = 2, DATATYPE = 4, LABEL = 6;
+    private static final byte[][] MARKER_BYTES = new byte[MARKERS.length][];
+    private static final int[] FIRST_CHAR_MASK = new int[128]; // first char -> bitmask of markers starting with it
+    private static final long MAP_THRESHOLD = 64 * 1024; // smaller files are cheaper to read than to map
+    private static final Metrics.Timer PARSE_TIMER = Metrics.getGlobal().timer("html_parse", "Field extraction per HTML article");
+
+    static {
+        for (int m = 0; m < MARKERS.length; m++) {
+            MARKER_BYTES[m] = MARKERS[m].getBytes(StandardCharsets.US_ASCII);
+            FIRST_CHAR_MASK[MARKERS[m].charAt(0)] |= 1 << m;
+        }
+    }
+
+    private static final int ALL_FOUND = (1 << MARKERS.length) - 1;
+
+    public static NewsArticles extract(Path _file) throws IOException {
+        try (FileChannel channel = FileChannel.open(_file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size >= MAP_THRESHOLD && size <= Integer.MAX_VALUE) {
+                return extract(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read until full or end of file
+            }
+            buffer.flip();
+            return extract(buffer);
+        }
+    }
+
+    // _html holds UTF-8 bytes between position and limit; the buffer's position is not modified
+    public static NewsArticles extract(ByteBuffer _html) {
+        Metrics.Sample sample = PARSE_TIMER.start();
+        try {
+            return parse(_html);
+        } finally {
+            sample.stop();
+        }
+    }
+
+    private static NewsArticles parse(ByteBuffer _html) {
+        int base = _html.position();
+        int limit = _html.limit();
+        int[] found = newPositions();
+        int foundMask = 0;
+        for (int i = base; i < limit && foundMask != ALL_FOUND; i++) {
+            int b = _html.get(i);
+            if (b < 0) {
+                continue; // non-ASCII byte, never starts a marker
+            }
+            int candidates = FIRST_CHAR_MASK[b] & ~foundMask;
+            while (candidates != 0) {
+                int m = Integer.numberOfTrailingZeros(candidates);
+                candidates &= candidates - 1;
+                if (matches(_html, i, limit, MARKER_BYTES[m])) {
+                    found[m] = i - base;
+                    foundMask |= 1 << m;
+                }
+            }
+        }
+        return build(found, (start, end) -> decode(_html, base + start, base + end));
+    }
+
+    public static NewsArticles extract(CharSequence _html) {
+        Metrics.Sample sample = PARSE_TIMER.start();
+        try {
+            return parse(_html);
+        } finally {
+            sample.stop();
+        }
+    }
+
+    private static NewsArticles parse(CharSequence _html) {
+        int length = _html.length();
+        int[] found = newPositions();
+        int foundMask = 0;
+        for (int i = 0; i < length && foundMask != ALL_FOUND; i++) {
+            char c = _html.charAt(i);
+            if (c >= 128) {
+                continue;
+            }
+            int candidates = FIRST_CHAR_MASK[c] & ~foundMask;
+            while (candidates != 0) {
+                int m = Integer.numberOfTrailingZeros(candidates);
+                candidates &= candidates - 1;
+                if (matches(_html, i, MARKERS[m])) {
+                    found[m] = i;
+                    foundMask |= 1 << m;
+                }
+            }
+        }
+        return build(found, (start, end) -> _html.subSequence(start, end).toString());
+    }
+
+    private static int[] newPositions() {
+        int[] found = new int[MARKERS.length];
+        Arrays.fill(found, -1);
+        return found;
+    }
+
+    private static boolean matches(ByteBuffer _html, int _at, int _limit, byte[] _marker) {
+        if (_at + _marker.length > _limit) {
+            return false;
+        }
+        for (int j = 1; j < _marker.length; j++) {
+            if (_html.get(_at + j) != _marker[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(CharSequence _html, int _at, String _marker) {
+        if (_at + _marker.length() > _html.length()) {
+            return false;
+        }
+        for (int j = 1; j < _marker.length(); j++) {
+            if (_html.charAt(_at + j) != _marker.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String decode(ByteBuffer _html, int _start, int _end) {
+        byte[] bytes = new byte[_end - _start];
+        _html.get(_start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private interface FieldReader {
+        String read(int _start, int _end);
+    }
+
+    // Same bounds rules and fallbacks as the individual HtmlParser getters
+    private static NewsArticles build(int[] _found, FieldReader _reader) {
+        String title = field(_found, TITLE, _reader);
+        String content = field(_found, CONTENT, _reader);
+        String datatype = field(_found, DATATYPE, _reader);
+        String label = field(_found, LABEL, _reader);
+        return new NewsArticles(
+                title == null ? HtmlParser.TITLE_NOT_FOUND : HtmlParser.parseTitle(title),
+                content == null ? HtmlParser.CONTENT_NOT_FOUND : HtmlParser.parseContent(content),
+                datatype == null ? NewsArticles.DataType.Testing : HtmlParser.parseDataType(datatype),
+                label == null ? HtmlParser.LABEL_NOT_FOUND : HtmlParser.parseLabel(label));
+    }
+
+    private static String field(int[] _found, int _open, FieldReader _reader) {
+        int start = _found[_open] + MARKERS[_open].length();
+        int end = _found[_open + 1];
+        if (end != -1 && end > start) {
+            return _reader.read(start, end);
+        }
+        return null;
+    }
+}
@@ -1,4 +1,7 @@
 public class HtmlParser {
+    static final String TITLE_NOT_FOUND = "Title not found!";
+    static final String CONTENT_NOT_FOUND = "Content not found!";
+    static final String LABEL_NOT_FOUND = "-1";
 
     // Extract the title of the news from the _htmlCode.
     public static String getNewsTitle(String _htmlCode) {
@@ -9,11 +12,10 @@ public class HtmlParser {
         int titleEnd = _htmlCode.indexOf(titleTagClose);
 
         if (titleStart != -1 && titleEnd != -1 && titleEnd > titleStart) {
-            String strFullTitle = _htmlCode.substring(titleStart, titleEnd);
-            return strFullTitle.substring(0, strFullTitle.indexOf(" |"));
+            return parseTitle(_htmlCode.substring(titleStart, titleEnd));
         }
 
-        return "Title not found!";
+        return TITLE_NOT_FOUND;
     }
 
     // Extract the content of the news from the _htmlCode.
@@ -25,10 +27,10 @@ public class HtmlParser {
         int contentEnd = _htmlCode.indexOf(contentTagClose);
 
         if (contentStart != -1 && contentEnd != -1 && contentEnd > contentStart) {
-            return _htmlCode.substring(contentStart, contentEnd).toLowerCase();
+            return parseContent(_htmlCode.substring(contentStart, contentEnd));
         }
 
-        return "Content not found!";
+        return CONTENT_NOT_FOUND;
     }
 
     public static NewsArticles.DataType getDataType(String _htmlCode) {
@@ -39,12 +41,7 @@ public class HtmlParser {
         int datatypeEnd = _htmlCode.indexOf(datatypeTagClose);
 
         if (datatypeStart != -1 && datatypeEnd != -1 && datatypeEnd > datatypeStart) {
-            String strFullDatatype = _htmlCode.substring(datatypeStart, datatypeEnd);
-            for (NewsArticles.DataType type : NewsArticles.DataType.values()) {
-                if (type.name().equalsIgnoreCase(strFullDatatype)) {
-                    return type;
-                }
-            }
+            return parseDataType(_htmlCode.substring(datatypeStart, datatypeEnd));
         }
         return NewsArticles.DataType.Testing;
     }
@@ -57,9 +54,32 @@ public class HtmlParser {
         int labelEnd = _htmlCode.indexOf(labelTagClose);
 
         if (labelStart != -1 && labelEnd != -1 && labelEnd > labelStart) {
-            String strFullTitle = _htmlCode.substring(labelStart, labelEnd);
-            return strFullTitle.trim();
+            return parseLabel(_htmlCode.substring(labelStart, labelEnd));
+        }
+        return LABEL_NOT_FOUND;
+    }
+
+    // Field post-processing shared with HtmlExtractor; each takes the text between the tags.
+    // Drops the " | Site" suffix; pages posted to the server may have no suffix at all
+    static String parseTitle(String _strFullTitle) {
+        int suffix = _strFullTitle.indexOf(" |");
+        return suffix == -1 ? _strFullTitle : _strFullTitle.substring(0, suffix);
+    }
+
+    static String parseContent(String _strFullContent) {
+        return _strFullContent.toLowerCase();
+    }
+
+    static NewsArticles.DataType parseDataType(String _strFullDatatype) {
+        for (NewsArticles.DataType type : NewsArticles.DataType.values()) {
+            if (type.name().equalsIgnoreCase(_strFullDatatype)) {
+                return type;
+            }
         }
-        return "-1";
+        return NewsArticles.DataType.Testing;
+    }
+
+    static String parseLabel(String _strFullLabel) {
+        return _strFullLabel.trim();
     }
 }
@@ -0,0 +1,149 @@
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Random;
+
+// Fine-tunes a saved model on newly labelled examples instead of rebuilding it. The bundle's embeddingSize
+// is frozen, so the network keeps its input width and no corpus-wide size pass is needed. Each update
+// trains a copy of the network for a few epochs on the new examples mixed with a sample from the bundle's
+// replay buffer (rehearsal), then folds the new examples into the buffer by reservoir sampling so it stays
+// a uniform sample of everything seen, at a fixed size.
+public class IncrementalTrainer {
+    public static final int DEFAULT_REPLAY_CAPACITY = 2000;
+
+    private int intEpochs = 5;
+    private int intBatchSize = 10;
+    private double doubReplayRatio = 1.0;
+    private int intReplayCapacity = DEFAULT_REPLAY_CAPACITY;
+    private long longSeed = 42;
+
+    // Passes over the new examples plus their replay sample
+    public IncrementalTrainer setEpochs(int _epochs) {
+        intEpochs = Math.max(1, _epochs);
+        return this;
+    }
+
+    public IncrementalTrainer setBatchSize(int _batchSize) {
+        intBatchSize = Math.max(1, _batchSize);
+        return this;
+    }
+
+    // Replayed old examples per new example
+    public IncrementalTrainer setReplayRatio(double _replayRatio) {
+        if (_replayRatio < 0) {
+            throw new IllegalArgumentException("Replay ratio must be >= 0: " + _replayRatio);
+        }
+        doubReplayRatio = _replayRatio;
+        return this;
+    }
+
+    // Most examples kept in the bundle's replay buffer
+    public IncrementalTrainer setReplayCapacity(int _replayCapacity) {
+        intReplayCapacity = Math.max(0, _replayCapacity);
+        return this;
+    }
+
+    public IncrementalTrainer setSeed(long _seed) {
+        longSeed = _seed;
+        return this;
+    }
+
+    // Returns a new bundle with the fine-tuned network and updated replay buffer; _bundle is left untouched
+    public ModelBundle update(ModelBundle _bundle, DataSet _newExamples) {
+        MultiLayerNetwork network = _bundle.getNetwork();
+        if (_newExamples.getFeatures().columns() != network.layerInputSize(0)) {
+            throw new IllegalArgumentException("Examples have " + _newExamples.getFeatures().columns()
+                    + " features but the model takes " + network.layerInputSize(0));
+        }
+        if (_newExamples.getLabels().columns() != _bundle.getNumberOfClasses()) {
+            throw new IllegalArgumentException("Examples have " + _newExamples.getLabels().columns()
+                    + " classes but the model has " + _bundle.getNumberOfClasses());
+        }
+        Random random = new Random(longSeed);
+        DataSet replay = _bundle.getReplay();
+        int newCount = _newExamples.numExamples();
+
+        DataSet training = _newExamples;
+        if (replay != null && doubReplayRatio > 0) {
+            int replayCount = (int) Math.min(replay.numExamples(), Math.round(newCount * doubReplayRatio));
+            if (replayCount > 0) {
+                int[] rows = sampleRows(replay.numExamples(), replayCount, random);
+                training = new DataSet(
+                        Nd4j.vstack(_newExamples.getFeatures(), Nd4j.pullRows(replay.getFeatures(), 1, rows)),
+                        Nd4j.vstack(_newExamples.getLabels(), Nd4j.pullRows(replay.getLabels(), 1, rows)));
+            }
+        }
+
+        MultiLayerNetwork tuned = network.clone();
+        PackedDataSetIterator batches = new PackedDataSetIterator(training, intBatchSize, random);
+        for (int epoch = 0; epoch < intEpochs; epoch++) {
+            Metrics.Sample sample = AdvancedNewsClassifier.TRAIN_EPOCH_TIMER.start();
+            try {
+                tuned.fit(batches);
+            } finally {
+                sample.stop();
+            }
+            batches.reset();
+        }
+
+        DataSet updatedReplay = reservoir(replay, _bundle.getReplaySeen(), _newExamples, intReplayCapacity, random);
+        return new ModelBundle(tuned, _bundle.getEmbeddingSize(), _bundle.getVocabularyFingerprint(),
+                labelsOf(_bundle), updatedReplay, _bundle.getReplaySeen() + newCount, _bundle.getPooling());
+    }
+
+    // Algorithm R: after the call the buffer is a uniform sample of _seen + _incoming examples, at most _capacity rows
+    public static DataSet reservoir(DataSet _buffer, long _seen, DataSet _incoming, int _capacity, Random _random) {
+        int held = _buffer == null ? 0 : _buffer.numExamples();
+        INDArray features = held == 0 ? _incoming.getFeatures() : Nd4j.vstack(_buffer.getFeatures(), _incoming.getFeatures());
+        INDArray labels = held == 0 ? _incoming.getLabels() : Nd4j.vstack(_buffer.getLabels(), _incoming.getLabels());
+
+        // Slots refer to rows of the stacked buffer + incoming matrices
+        int[] slots = new int[Math.min(_capacity, held + _incoming.numExamples())];
+        int filled = 0;
+        for (; filled < held && filled < slots.length; filled++) {
+            slots[filled] = filled;
+        }
+        for (int i = 0; i < _incoming.numExamples(); i++) {
+            long position = _seen + i;
+            if (filled < slots.length) {
+                slots[filled++] = held + i;
+            } else if (slots.length > 0) {
+                long j = (long) (_random.nextDouble() * (position + 1));
+                if (j < slots.length) {
+                    slots[(int) j] = held + i;
+                }
+            }
+        }
+        if (slots.length == 0) {
+            return null;
+        }
+        return new DataSet(Nd4j.pullRows(features, 1, slots), Nd4j.pullRows(labels, 1, slots));
+    }
+
+    // _count distinct row indices out of _rows, by a partial Fisher-Yates shuffle
+    private static int[] sampleRows(int _rows, int _count, Random _random) {
+        int[] order = new int[_rows];
+        for (int i = 0; i < _rows; i++) {
+            order[i] = i;
+        }
+        for (int i = 0; i < _count; i++) {
+            int j = i + _random.nextInt(_rows - i);
+            int row = order[i];
+            order[i] = order[j];
+            order[j] = row;
+        }
+        int[] sample = new int[_count];
+        System.arraycopy(order, 0, sample, 0, _count);
+        return sample;
+    }
+
+    private static String[] labelsOf(ModelBundle _bundle) {
+        String[] labels = new String[_bundle.getNumberOfClasses()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = _bundle.getLabel(i);
+        }
+        return labels;
+    }
+}
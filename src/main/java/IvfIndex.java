@@ -0,0 +1,252 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+// Approximate cosine search with an inverted file: rows are clustered by spherical k-means and a query
+// only scans the lists of its _probes closest centroids. Each list's rows are stored contiguously.
+// Immutable, so one index can be shared by concurrent searches; withProbes returns a copy over the same lists.
+// File layout (little-endian): header | centroids | list offsets | ids | rows in list order.
+public class IvfIndex implements VectorIndex {
+    private static final int MAGIC = 0x49564649; // "IVFI"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int SAMPLES_PER_LIST = 64; // k-means trains on at most lists x 64 rows
+    private static final int CHUNK = 1 << 16; // elements per I/O buffer
+
+    private final int intDimension;
+    private final int intLists;
+    private final double[] centroids;
+    private final int[] listOffsets;
+    private final int[] ids;
+    private final double[] rows;
+    private final int intProbes;
+
+    private IvfIndex(int _dimension, double[] _centroids, int[] _listOffsets, int[] _ids, double[] _rows, int _probes) {
+        intDimension = _dimension;
+        intLists = _listOffsets.length - 1;
+        centroids = _centroids;
+        listOffsets = _listOffsets;
+        ids = _ids;
+        rows = _rows;
+        intProbes = Math.max(1, Math.min(_probes, intLists));
+    }
+
+    public static IvfIndex build(BruteForceIndex _exact, int _lists, int _iterations, long _seed) {
+        int dimension = _exact.getDimension();
+        int size = _exact.size();
+        if (size == 0) {
+            throw new IllegalArgumentException("Cannot cluster an empty index");
+        }
+        double[] unitRows = _exact.getUnitRows();
+        int lists = Math.max(1, Math.min(_lists, size));
+        Random random = new Random(_seed);
+
+        int[] sample = sampleRows(size, Math.min(size, lists * SAMPLES_PER_LIST), random);
+        double[] centroids = new double[lists * dimension];
+        for (int c = 0; c < lists; c++) {
+            System.arraycopy(unitRows, sample[c] * dimension, centroids, c * dimension, dimension);
+        }
+        int[] assignment = new int[sample.length];
+        for (int iteration = 0; iteration < _iterations; iteration++) {
+            double[] sums = new double[centroids.length];
+            int[] counts = new int[lists];
+            for (int i = 0; i < sample.length; i++) {
+                assignment[i] = nearestCentroid(centroids, lists, unitRows, sample[i] * dimension, dimension);
+                counts[assignment[i]]++;
+                for (int d = 0; d < dimension; d++) {
+                    sums[assignment[i] * dimension + d] += unitRows[sample[i] * dimension + d];
+                }
+            }
+            for (int c = 0; c < lists; c++) {
+                if (counts[c] == 0) {
+                    // Reseed an empty list from a random sampled row
+                    System.arraycopy(unitRows, sample[random.nextInt(sample.length)] * dimension, sums, c * dimension, dimension);
+                }
+                BruteForceIndex.normalise(sums, c * dimension, dimension);
+            }
+            centroids = sums;
+        }
+
+        // Assign every row, then lay the rows out list by list (counting sort)
+        int[] rowList = new int[size];
+        int[] listOffsets = new int[lists + 1];
+        for (int row = 0; row < size; row++) {
+            rowList[row] = nearestCentroid(centroids, lists, unitRows, row * dimension, dimension);
+            listOffsets[rowList[row] + 1]++;
+        }
+        for (int c = 0; c < lists; c++) {
+            listOffsets[c + 1] += listOffsets[c];
+        }
+        int[] next = listOffsets.clone();
+        int[] ids = new int[size];
+        double[] rows = new double[size * dimension];
+        for (int row = 0; row < size; row++) {
+            int position = next[rowList[row]]++;
+            ids[position] = row;
+            System.arraycopy(unitRows, row * dimension, rows, position * dimension, dimension);
+        }
+        return new IvfIndex(dimension, centroids, listOffsets, ids, rows, lists / 16);
+    }
+
+    // Rough default: about sqrt(n) lists and 10 k-means iterations
+    public static IvfIndex build(BruteForceIndex _exact, long _seed) {
+        return build(_exact, (int) Math.max(1, Math.round(Math.sqrt(_exact.size()))), 10, _seed);
+    }
+
+    private static int[] sampleRows(int _size, int _count, Random _random) {
+        int[] rows = new int[_size];
+        for (int i = 0; i < _size; i++) {
+            rows[i] = i;
+        }
+        for (int i = 0; i < _count; i++) { // partial Fisher-Yates
+            int j = i + _random.nextInt(_size - i);
+            int row = rows[i];
+            rows[i] = rows[j];
+            rows[j] = row;
+        }
+        int[] sample = new int[_count];
+        System.arraycopy(rows, 0, sample, 0, _count);
+        return sample;
+    }
+
+    private static int nearestCentroid(double[] _centroids, int _lists, double[] _rows, int _offset, int _dimension) {
+        int best = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c < _lists; c++) {
+            double score = VectorMath.dotProduct(_centroids, c * _dimension, _rows, _offset, _dimension);
+            if (score > bestScore) {
+                bestScore = score;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public int size() {
+        return ids.length;
+    }
+
+    @Override
+    public int getDimension() {
+        return intDimension;
+    }
+
+    public int getLists() {
+        return intLists;
+    }
+
+    public int getProbes() {
+        return intProbes;
+    }
+
+    // More probes trade speed for recall; probes == lists is an exact search. This index is left unchanged.
+    public IvfIndex withProbes(int _probes) {
+        return new IvfIndex(intDimension, centroids, listOffsets, ids, rows, _probes);
+    }
+
+    @Override
+    public TopK search(double[] _query, int _k, IntPredicate _exclude) {
+        double[] unitQuery = BruteForceIndex.unitQuery(_query, intDimension);
+        TopK nearestLists = new TopK(intProbes);
+        for (int c = 0; c < intLists; c++) {
+            nearestLists.offer(c, VectorMath.dotProduct(centroids, c * intDimension, unitQuery, 0, intDimension));
+        }
+        TopK result = new TopK(_k);
+        for (int list : nearestLists.getIds()) {
+            BruteForceIndex.scanRows(rows, unitQuery, intDimension, listOffsets[list], listOffsets[list + 1], ids, _exclude, result);
+        }
+        return result;
+    }
+
+    public void save(Path _file) throws IOException {
+        try (FileChannel channel = FileChannel.open(_file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(intDimension).putInt(intLists).putInt(ids.length).putInt(intProbes);
+            header.clear();
+            writeFully(channel, header);
+            writeDoubles(channel, centroids);
+            writeInts(channel, listOffsets);
+            writeInts(channel, ids);
+            writeDoubles(channel, rows);
+        }
+    }
+
+    public static IvfIndex load(Path _file) throws IOException {
+        try (FileChannel channel = FileChannel.open(_file, StandardOpenOption.READ)) {
+            ByteBuffer header = readFully(channel, HEADER_BYTES);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not an IVF index (bad magic or version): " + _file);
+            }
+            int dimension = header.getInt();
+            int lists = header.getInt();
+            int size = header.getInt();
+            int probes = header.getInt();
+            return new IvfIndex(dimension, readDoubles(channel, lists * dimension),
+                    readInts(channel, lists + 1), readInts(channel, size), readDoubles(channel, size * dimension), probes);
+        }
+    }
+
+    private static void writeDoubles(FileChannel _channel, double[] _values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.min(_values.length, CHUNK) * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int start = 0; start < _values.length; start += CHUNK) {
+            int count = Math.min(CHUNK, _values.length - start);
+            buffer.clear();
+            buffer.asDoubleBuffer().put(_values, start, count);
+            buffer.limit(count * Double.BYTES);
+            writeFully(_channel, buffer);
+        }
+    }
+
+    private static void writeInts(FileChannel _channel, int[] _values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.min(_values.length, CHUNK) * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int start = 0; start < _values.length; start += CHUNK) {
+            int count = Math.min(CHUNK, _values.length - start);
+            buffer.clear();
+            buffer.asIntBuffer().put(_values, start, count);
+            buffer.limit(count * Integer.BYTES);
+            writeFully(_channel, buffer);
+        }
+    }
+
+    private static double[] readDoubles(FileChannel _channel, int _count) throws IOException {
+        double[] values = new double[_count];
+        for (int start = 0; start < _count; start += CHUNK) {
+            int count = Math.min(CHUNK, _count - start);
+            readFully(_channel, count * Double.BYTES).asDoubleBuffer().get(values, start, count);
+        }
+        return values;
+    }
+
+    private static int[] readInts(FileChannel _channel, int _count) throws IOException {
+        int[] values = new int[_count];
+        for (int start = 0; start < _count; start += CHUNK) {
+            int count = Math.min(CHUNK, _count - start);
+            readFully(_channel, count * Integer.BYTES).asIntBuffer().get(values, start, count);
+        }
+        return values;
+    }
+
+    private static void writeFully(FileChannel _channel, ByteBuffer _buffer) throws IOException {
+        while (_buffer.hasRemaining()) {
+            _channel.write(_buffer);
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel _channel, int _bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(_bytes).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (_channel.read(buffer) < 0) {
+                throw new IOException("Unexpected end of IVF index file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
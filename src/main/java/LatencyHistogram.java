@@ -0,0 +1,72 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free latency histogram with log-linear buckets: 16 linear sub-buckets per power of two of
+// microseconds, so percentiles are accurate to within about 6% at any scale from 1us to hours.
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BLOCKS = 40; // up to 2^43us, about 100 days
+    private static final int BUCKETS = BLOCKS * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+
+    public void recordNanos(long _nanos) {
+        long micros = Math.max(0, _nanos / 1000);
+        counts.incrementAndGet(bucketOf(micros));
+        totalCount.increment();
+        totalMicros.add(micros);
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public double getMeanMillis() {
+        long count = totalCount.sum();
+        return count == 0 ? 0 : totalMicros.sum() / 1000.0 / count;
+    }
+
+    // Upper bound of the bucket holding the _percentile-th value (0-100), in milliseconds; 0 when empty
+    public double getPercentileMillis(double _percentile) {
+        long count = 0;
+        long[] snapshot = new long[counts.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(_percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return upperBoundMicros(i) / 1000.0;
+            }
+        }
+        return upperBoundMicros(snapshot.length - 1) / 1000.0;
+    }
+
+    // Block 0 holds 0..15us exactly; block k >= 1 splits [16 << (k-1), 32 << (k-1)) into 16 equal buckets
+    static int bucketOf(long _micros) {
+        if (_micros < SUB_BUCKETS) {
+            return (int) _micros;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(_micros) - SUB_BUCKET_BITS;
+        int bucket = (shift + 1) * SUB_BUCKETS + (int) (_micros >>> shift) - SUB_BUCKETS;
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    static long upperBoundMicros(int _bucket) {
+        int block = _bucket / SUB_BUCKETS;
+        int offset = _bucket % SUB_BUCKETS;
+        if (block == 0) {
+            return offset;
+        }
+        return ((long) (SUB_BUCKETS + offset + 1) << (block - 1)) - 1;
+    }
+}
@@ -0,0 +1,109 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded, concurrent surface form -> lemma cache for the CoreNLP stage. News vocabulary repeats heavily,
+// so once the cache is warm most documents consist only of known forms and can skip POS tagging
+// entirely (see ClassifierContext.withLemmaCache). In exact mode a document with any uncached form is
+// still tagged as a whole; in approximate (lemma-only) mode the POS tagger never runs and uncached forms
+// are stemmed without a tag instead. Bounded by two generations: lookups go to the current
+// map and fall back to the previous one (promoting the entry); when the current map fills up it becomes
+// the previous one and the older generation is dropped. That keeps recently used forms without LRU
+// bookkeeping on every read.
+// A cached lemma is whatever CoreNLP produced the last time the form was seen, so forms whose lemma
+// depends on context (e.g. "saw" as noun or verb) can differ from a full run; ArticlesEmbedding
+// .lemmaAgreement measures how often.
+public class LemmaCache {
+    private final int intGenerationSize;
+    private final boolean boolApproximate;
+    private volatile Map<String, String> current = new ConcurrentHashMap<>();
+    private volatile Map<String, String> previous = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder fastDocuments = new LongAdder();
+    private final LongAdder taggedDocuments = new LongAdder();
+
+    // Exact mode: holds between _capacity / 2 and _capacity forms
+    public LemmaCache(int _capacity) {
+        this(_capacity, false);
+    }
+
+    public LemmaCache(int _capacity, boolean _approximate) {
+        if (_capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2: " + _capacity);
+        }
+        intGenerationSize = _capacity / 2;
+        boolApproximate = _approximate;
+    }
+
+    public boolean isApproximate() {
+        return boolApproximate;
+    }
+
+    // null on a miss. Not counted: the caller reports through recordLookups how many lemmas it actually used
+    public String get(String _word) {
+        String lemma = current.get(_word);
+        if (lemma == null) {
+            lemma = previous.get(_word);
+            if (lemma != null) {
+                put(_word, lemma);
+            }
+        }
+        return lemma;
+    }
+
+    public void put(String _word, String _lemma) {
+        Map<String, String> generation = current;
+        generation.put(_word, _lemma);
+        if (generation.size() >= intGenerationSize) {
+            synchronized (this) {
+                if (current == generation) {
+                    previous = generation;
+                    current = new ConcurrentHashMap<>();
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return current.size() + previous.size();
+    }
+
+    // _hits tokens took their lemma from the cache, _misses were tagged or stemmed
+    void recordLookups(int _hits, int _misses) {
+        hits.add(_hits);
+        misses.add(_misses);
+    }
+
+    void recordDocument(boolean _fastPath) {
+        (_fastPath ? fastDocuments : taggedDocuments).increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    // Share of tokens whose lemma came from the cache
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : hitCount / (double) total;
+    }
+
+    // Share of documents that skipped POS tagging: every token was cached, or approximate mode
+    public double getFastPathRate() {
+        long fast = fastDocuments.sum();
+        long total = fast + taggedDocuments.sum();
+        return total == 0 ? 0 : fast / (double) total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LemmaCache[%s, %d forms, %.1f%% token hits, %.1f%% documents untagged]",
+                boolApproximate ? "approximate" : "exact", size(), getHitRate() * 100, getFastPathRate() * 100);
+    }
+}
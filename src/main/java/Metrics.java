@@ -0,0 +1,205 @@
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+// Counters, gauges and timers for the pipeline stages, cheap enough to leave on: counters are striped
+// LongAdders and timers record into a lock-free LatencyHistogram plus the bytes the timing thread allocated
+// (HotSpot's per-thread allocation counter, when the JVM has one). Metrics are created on first use by
+// name and live for the JVM; getGlobal() is the registry the pipeline records into. Snapshots export as
+// JSON or Prometheus text, to a file (writeTo) or ClassificationServer's GET /metrics.
+public class Metrics {
+    private static final String PREFIX = "newsclassifier_";
+    private static final Metrics global = new Metrics();
+    private static final com.sun.management.ThreadMXBean allocations = allocationCounter();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public static Metrics getGlobal() {
+        return global;
+    }
+
+    // Names are lower_snake_case, as Prometheus expects; the same name always returns the same metric
+    public Counter counter(String _name, String _help) {
+        return counters.computeIfAbsent(checkName(_name), name -> new Counter(_help));
+    }
+
+    public Timer timer(String _name, String _help) {
+        return timers.computeIfAbsent(checkName(_name), name -> new Timer(_help));
+    }
+
+    // Evaluated at export time; registering the name again replaces the supplier
+    public void gauge(String _name, String _help, DoubleSupplier _value) {
+        gauges.put(checkName(_name), new Gauge(_help, _value));
+    }
+
+    public JsonObject toJson() {
+        JsonObject counterValues = new JsonObject();
+        new TreeMap<>(counters).forEach((name, counter) -> counterValues.addProperty(name, counter.get()));
+        JsonObject gaugeValues = new JsonObject();
+        new TreeMap<>(gauges).forEach((name, gauge) -> gaugeValues.addProperty(name, gauge.value.getAsDouble()));
+        JsonObject timerValues = new JsonObject();
+        new TreeMap<>(timers).forEach((name, timer) -> {
+            JsonObject values = new JsonObject();
+            values.addProperty("count", timer.getCount());
+            values.addProperty("totalSeconds", timer.getTotalSeconds());
+            values.addProperty("meanMillis", timer.latency.getMeanMillis());
+            values.addProperty("p50Millis", timer.latency.getPercentileMillis(50));
+            values.addProperty("p90Millis", timer.latency.getPercentileMillis(90));
+            values.addProperty("p99Millis", timer.latency.getPercentileMillis(99));
+            values.addProperty("allocatedBytes", timer.getAllocatedBytes());
+            timerValues.add(name, values);
+        });
+        JsonObject snapshot = new JsonObject();
+        snapshot.add("counters", counterValues);
+        snapshot.add("gauges", gaugeValues);
+        snapshot.add("timers", timerValues);
+        return snapshot;
+    }
+
+    // Text exposition format 0.0.4: counters as <name>_total, timers as summaries in seconds with an
+    // <name>_allocated_bytes_total counter alongside
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        new TreeMap<>(counters).forEach((name, counter) -> {
+            header(out, name + "_total", counter.help, "counter");
+            out.append(PREFIX).append(name).append("_total ").append(counter.get()).append('\n');
+        });
+        new TreeMap<>(gauges).forEach((name, gauge) -> {
+            header(out, name, gauge.help, "gauge");
+            out.append(PREFIX).append(name).append(' ').append(gauge.value.getAsDouble()).append('\n');
+        });
+        new TreeMap<>(timers).forEach((name, timer) -> {
+            String seconds = name + "_seconds";
+            header(out, seconds, timer.help, "summary");
+            for (double quantile : new double[]{0.5, 0.9, 0.99}) {
+                out.append(PREFIX).append(seconds).append("{quantile=\"").append(quantile).append("\"} ")
+                        .append(timer.latency.getPercentileMillis(quantile * 100) / 1000).append('\n');
+            }
+            out.append(PREFIX).append(seconds).append("_sum ").append(timer.getTotalSeconds()).append('\n');
+            out.append(PREFIX).append(seconds).append("_count ").append(timer.getCount()).append('\n');
+            header(out, name + "_allocated_bytes_total", "Bytes allocated by the timing thread: " + timer.help, "counter");
+            out.append(PREFIX).append(name).append("_allocated_bytes_total ").append(timer.getAllocatedBytes()).append('\n');
+        });
+        return out.toString();
+    }
+
+    // JSON for a .json file, Prometheus text otherwise
+    public void writeTo(Path _file) throws IOException {
+        String text = _file.getFileName().toString().endsWith(".json") ? toJson().toString() : toPrometheus();
+        Files.write(_file, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void header(StringBuilder _out, String _name, String _help, String _type) {
+        _out.append("# HELP ").append(PREFIX).append(_name).append(' ').append(_help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        _out.append("# TYPE ").append(PREFIX).append(_name).append(' ').append(_type).append('\n');
+    }
+
+    private static String checkName(String _name) {
+        if (!_name.matches("[a-z][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Metric names are lower_snake_case: " + _name);
+        }
+        return _name;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean;
+        }
+        return null;
+    }
+
+    static long currentThreadAllocatedBytes() {
+        return allocations == null ? 0 : allocations.getCurrentThreadAllocatedBytes();
+    }
+
+    public static final class Counter {
+        private final String help;
+        private final LongAdder value = new LongAdder();
+
+        private Counter(String _help) {
+            help = _help;
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long _amount) {
+            value.add(_amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    private record Gauge(String help, DoubleSupplier value) {
+    }
+
+    public static final class Timer {
+        private final String help;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+
+        private Timer(String _help) {
+            help = _help;
+        }
+
+        // Sample sample = TIMER.start(); try { ... } finally { sample.stop(); } records the block's duration
+        // and allocations
+        public Sample start() {
+            return new Sample(this);
+        }
+
+        public void record(long _nanos, long _allocatedBytes) {
+            latency.recordNanos(_nanos);
+            totalNanos.add(_nanos);
+            allocatedBytes.add(Math.max(0, _allocatedBytes));
+        }
+
+        public long getCount() {
+            return latency.getCount();
+        }
+
+        public double getTotalSeconds() {
+            return totalNanos.sum() / 1e9;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes.sum();
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+    }
+
+    public static final class Sample {
+        private final Timer timer;
+        private final long longStartNanos;
+        private final long longStartBytes;
+
+        private Sample(Timer _timer) {
+            timer = _timer;
+            longStartBytes = currentThreadAllocatedBytes();
+            longStartNanos = System.nanoTime();
+        }
+
+        public void stop() {
+            timer.record(System.nanoTime() - longStartNanos, currentThreadAllocatedBytes() - longStartBytes);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Coalesces concurrent prediction requests into one forward pass. A single dispatcher thread takes the
+// first waiting request, keeps collecting until either _maxBatchSize articles are queued or _maxDelayMillis
+// have passed since that request arrived, then runs one predict call for everything it collected.
+// Under light load a request waits at most the delay budget; under heavy load batches fill up and go at once.
+public class MicroBatcher implements AutoCloseable {
+    public interface BatchPredictor {
+        int[] predict(List<ArticlesEmbedding> _batch) throws Exception;
+    }
+
+    private static class Request {
+        final List<ArticlesEmbedding> articles;
+        final CompletableFuture<int[]> result = new CompletableFuture<>();
+        final long enqueuedNanos = System.nanoTime();
+
+        Request(List<ArticlesEmbedding> _articles) {
+            articles = _articles;
+        }
+    }
+
+    private final BatchPredictor predictor;
+    private final int intMaxBatchSize;
+    private final long longMaxDelayNanos;
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final Thread dispatcher;
+    private volatile boolean boolClosed = false;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedArticles = new LongAdder();
+
+    public MicroBatcher(BatchPredictor _predictor, int _maxBatchSize, long _maxDelayMillis) {
+        predictor = _predictor;
+        intMaxBatchSize = Math.max(1, _maxBatchSize);
+        longMaxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, _maxDelayMillis));
+        dispatcher = new Thread(this::dispatch, "micro-batcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    // Completes with one class index per article, in order
+    public CompletableFuture<int[]> submit(List<ArticlesEmbedding> _articles) {
+        Request request = new Request(_articles);
+        if (boolClosed) {
+            request.result.completeExceptionally(new IllegalStateException("Micro-batcher is closed"));
+            return request.result;
+        }
+        if (_articles.isEmpty()) {
+            request.result.complete(new int[0]);
+            return request.result;
+        }
+        queue.add(request);
+        if (boolClosed && queue.remove(request)) {
+            request.result.completeExceptionally(new IllegalStateException("Micro-batcher is closed"));
+        }
+        return request.result;
+    }
+
+    private void dispatch() {
+        List<Request> pending = new ArrayList<>();
+        try {
+            while (!boolClosed) {
+                Request first = queue.take();
+                pending.add(first);
+                int articles = first.articles.size();
+                long deadline = first.enqueuedNanos + longMaxDelayNanos;
+                while (articles < intMaxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Request next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    pending.add(next);
+                    articles += next.articles.size();
+                }
+                runBatch(pending, articles);
+                pending.clear();
+            }
+        } catch (InterruptedException e) {
+            // closed
+        }
+        IllegalStateException closed = new IllegalStateException("Micro-batcher is closed");
+        for (Request request : pending) {
+            request.result.completeExceptionally(closed);
+        }
+        for (Request request = queue.poll(); request != null; request = queue.poll()) {
+            request.result.completeExceptionally(closed);
+        }
+    }
+
+    private void runBatch(List<Request> _pending, int _articles) {
+        List<ArticlesEmbedding> batch = new ArrayList<>(_articles);
+        for (Request request : _pending) {
+            batch.addAll(request.articles);
+        }
+        try {
+            int[] result = predictor.predict(batch);
+            batches.increment();
+            batchedArticles.add(batch.size());
+            int offset = 0;
+            for (Request request : _pending) {
+                int[] slice = new int[request.articles.size()];
+                System.arraycopy(result, offset, slice, 0, slice.length);
+                offset += slice.length;
+                request.result.complete(slice);
+            }
+        } catch (Exception e) {
+            for (Request request : _pending) {
+                request.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    public double getAverageBatchSize() {
+        long count = batches.sum();
+        return count == 0 ? 0 : batchedArticles.sum() / (double) count;
+    }
+
+    @Override
+    public void close() {
+        boolClosed = true;
+        dispatcher.interrupt();
+    }
+}
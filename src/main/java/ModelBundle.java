@@ -0,0 +1,205 @@
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.util.ModelSerializer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.IntPredicate;
+
+// A trained network plus everything needed to feed it: the input width (embeddingSize), the pooling strategy
+// (with any fitted weights), a fingerprint of the vocabulary the embeddings were built from, and the
+// class index -> article label mapping.
+// Stored as a single DL4J model zip with the extra fields added as named objects. A bundle may also carry
+// a replay buffer: a bounded uniform sample of the examples the network has been trained on so far, which
+// IncrementalTrainer mixes into fine-tuning so new labels do not wash out what was learnt before.
+public class ModelBundle {
+    private static final String KEY_EMBEDDING_SIZE = "embeddingSize";
+    private static final String KEY_VOCABULARY = "vocabularyFingerprint";
+    private static final String KEY_LABELS = "labels";
+    private static final String KEY_REPLAY_FEATURES = "replayFeatures";
+    private static final String KEY_REPLAY_CLASSES = "replayClasses";
+    private static final String KEY_REPLAY_SEEN = "replaySeen";
+    private static final String KEY_POOLING = "pooling";
+    private static final String KEY_IDF_ROWS = "idfRows";
+    private static final String KEY_IDF_WEIGHTS = "idfWeights";
+    private static final String KEY_IDF_UNSEEN = "idfUnseenWeight";
+
+    private final MultiLayerNetwork network;
+    private final int embeddingSize;
+    private final String vocabularyFingerprint;
+    private final String[] labels;
+    private final DataSet replay;
+    private final long replaySeen;
+    private final PoolingStrategy pooling;
+
+    public ModelBundle(MultiLayerNetwork _network, int _embeddingSize, String _vocabularyFingerprint, String[] _labels) {
+        this(_network, _embeddingSize, _vocabularyFingerprint, _labels, null, 0);
+    }
+
+    // _replay holds one example per row (features, one-hot labels); _replaySeen counts every example it was sampled from
+    public ModelBundle(MultiLayerNetwork _network, int _embeddingSize, String _vocabularyFingerprint, String[] _labels,
+                       DataSet _replay, long _replaySeen) {
+        this(_network, _embeddingSize, _vocabularyFingerprint, _labels, _replay, _replaySeen, PoolingStrategy.PER_WORD_MEAN);
+    }
+
+    // _pooling is how the network's input rows were built; inference has to pool the same way
+    public ModelBundle(MultiLayerNetwork _network, int _embeddingSize, String _vocabularyFingerprint, String[] _labels,
+                       DataSet _replay, long _replaySeen, PoolingStrategy _pooling) {
+        network = _network;
+        embeddingSize = _embeddingSize;
+        vocabularyFingerprint = _vocabularyFingerprint;
+        labels = _labels.clone();
+        replay = _replay;
+        replaySeen = _replaySeen;
+        pooling = _pooling;
+    }
+
+    public void save(File _file) throws IOException {
+        ModelSerializer.writeModel(network, _file, true);
+        ModelSerializer.addObjectToFile(_file, KEY_EMBEDDING_SIZE, embeddingSize);
+        ModelSerializer.addObjectToFile(_file, KEY_VOCABULARY, vocabularyFingerprint);
+        ModelSerializer.addObjectToFile(_file, KEY_LABELS, labels);
+        if (replay != null) {
+            ModelSerializer.addObjectToFile(_file, KEY_REPLAY_FEATURES, replay.getFeatures().toFloatMatrix());
+            ModelSerializer.addObjectToFile(_file, KEY_REPLAY_CLASSES, replay.getLabels().argMax(1).toIntVector());
+            ModelSerializer.addObjectToFile(_file, KEY_REPLAY_SEEN, replaySeen);
+        }
+        ModelSerializer.addObjectToFile(_file, KEY_POOLING, pooling.getName());
+        if (pooling instanceof PoolingStrategy.TfIdf idf) {
+            ModelSerializer.addObjectToFile(_file, KEY_IDF_ROWS, idf.getRows());
+            ModelSerializer.addObjectToFile(_file, KEY_IDF_WEIGHTS, idf.getWeights());
+            ModelSerializer.addObjectToFile(_file, KEY_IDF_UNSEEN, idf.getUnseenWeight());
+        }
+    }
+
+    public static ModelBundle load(File _file) throws IOException {
+        if (!_file.isFile()) {
+            throw new IOException("Model bundle not found: " + _file);
+        }
+        MultiLayerNetwork network = ModelSerializer.restoreMultiLayerNetwork(_file, true);
+        try {
+            Integer embeddingSize = ModelSerializer.getObjectFromFile(_file, KEY_EMBEDDING_SIZE);
+            String fingerprint = ModelSerializer.getObjectFromFile(_file, KEY_VOCABULARY);
+            String[] labels = ModelSerializer.getObjectFromFile(_file, KEY_LABELS);
+            return new ModelBundle(network, embeddingSize, fingerprint, labels, loadReplay(_file, labels.length),
+                    loadReplaySeen(_file), loadPooling(_file));
+        } catch (RuntimeException e) {
+            throw new IOException("Not a model bundle (missing metadata): " + _file, e);
+        }
+    }
+
+    // Bundles saved before replay buffers existed simply have none
+    private static DataSet loadReplay(File _file, int _numberOfClasses) {
+        float[][] features;
+        int[] classes;
+        try {
+            features = ModelSerializer.getObjectFromFile(_file, KEY_REPLAY_FEATURES);
+            classes = ModelSerializer.getObjectFromFile(_file, KEY_REPLAY_CLASSES);
+        } catch (IllegalStateException e) {
+            return null;
+        }
+        INDArray oneHot = Nd4j.zeros(classes.length, _numberOfClasses);
+        for (int i = 0; i < classes.length; i++) {
+            oneHot.putScalar(i, classes[i], 1);
+        }
+        return new DataSet(Nd4j.createFromArray(features), oneHot);
+    }
+
+    private static long loadReplaySeen(File _file) {
+        try {
+            Long seen = ModelSerializer.getObjectFromFile(_file, KEY_REPLAY_SEEN);
+            return seen;
+        } catch (IllegalStateException e) {
+            return 0;
+        }
+    }
+
+    // Bundles saved before pooling strategies existed used per-word means
+    private static PoolingStrategy loadPooling(File _file) {
+        String name;
+        try {
+            name = ModelSerializer.getObjectFromFile(_file, KEY_POOLING);
+        } catch (IllegalStateException e) {
+            return PoolingStrategy.PER_WORD_MEAN;
+        }
+        if (name.equals("tfidf")) {
+            int[] rows = ModelSerializer.getObjectFromFile(_file, KEY_IDF_ROWS);
+            float[] weights = ModelSerializer.getObjectFromFile(_file, KEY_IDF_WEIGHTS);
+            Float unseenWeight = ModelSerializer.getObjectFromFile(_file, KEY_IDF_UNSEEN);
+            return new PoolingStrategy.TfIdf(rows, weights, unseenWeight);
+        }
+        return PoolingStrategy.forName(name);
+    }
+
+    // Embeddings built against a different vocabulary would silently feed the network garbage
+    public void checkVocabulary(String _vocabularyFingerprint) throws IOException {
+        if (!vocabularyFingerprint.equals(_vocabularyFingerprint)) {
+            throw new IOException("Model was trained with vocabulary " + vocabularyFingerprint
+                    + " but the loaded vocabulary is " + _vocabularyFingerprint);
+        }
+    }
+
+    public static String vocabularyFingerprint(EmbeddingTable _table, IntPredicate _includeRow) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(Integer.toString(_table.getDimension()).getBytes(StandardCharsets.UTF_8));
+            for (int row = 0; row < _table.size(); row++) {
+                if (_includeRow.test(row)) {
+                    digest.update((byte) '\n');
+                    digest.update(_table.getWord(row).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public MultiLayerNetwork getNetwork() {
+        return network;
+    }
+
+    public int getEmbeddingSize() {
+        return embeddingSize;
+    }
+
+    public String getVocabularyFingerprint() {
+        return vocabularyFingerprint;
+    }
+
+    public int getNumberOfClasses() {
+        return labels.length;
+    }
+
+    public String getLabel(int _classIndex) {
+        return labels[_classIndex];
+    }
+
+    public int getClassIndex(String _label) {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equals(_label)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Label " + _label + " is not one of the model's classes");
+    }
+
+    // null when the bundle has no replay buffer
+    public DataSet getReplay() {
+        return replay;
+    }
+
+    public long getReplaySeen() {
+        return replaySeen;
+    }
+
+    public PoolingStrategy getPooling() {
+        return pooling;
+    }
+}
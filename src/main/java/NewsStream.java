@@ -0,0 +1,110 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Bounded producer/consumer over news files: a background thread reads and parses one file at a time
+// and blocks once _capacity parsed articles are waiting, so memory stays flat however large the corpus is.
+public class NewsStream implements Iterator<NewsArticles>, AutoCloseable {
+    private static final NewsArticles END_OF_STREAM = new NewsArticles("", "", NewsArticles.DataType.Testing, "-1");
+
+    private final BlockingQueue<NewsArticles> queue;
+    private final Thread producer;
+    private volatile RuntimeException failure = null;
+    private NewsArticles nextArticle = null;
+    private boolean finished = false;
+
+    // _files is consumed on the reader thread and closed there if it is closeable (e.g. a DirectoryStream)
+    public NewsStream(Iterable<Path> _files, int _capacity) {
+        queue = new ArrayBlockingQueue<>(Math.max(1, _capacity));
+        producer = new Thread(() -> produce(_files), "news-reader");
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    private void produce(Iterable<Path> _files) {
+        try {
+            for (Path file : _files) {
+                if (!Toolkit.isNewsFile(file)) {
+                    continue;
+                }
+                NewsArticles article;
+                try {
+                    article = HtmlExtractor.extract(file);
+                } catch (IOException e) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return; // closed by the consumer mid-read (ClosedByInterruptException)
+                    }
+                    System.err.println("Error reading file " + file);
+                    continue;
+                }
+                queue.put(article);
+            }
+        } catch (InterruptedException e) {
+            return; // closed by the consumer
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            closeSource(_files);
+        }
+        try {
+            queue.put(END_OF_STREAM);
+        } catch (InterruptedException ignored) {
+            // closed by the consumer
+        }
+    }
+
+    private static void closeSource(Iterable<Path> _files) {
+        if (_files instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) _files).close();
+            } catch (Exception e) {
+                System.err.println("Error closing news directory: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextArticle != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        try {
+            NewsArticles article = queue.take();
+            if (article == END_OF_STREAM) {
+                finished = true;
+                if (failure != null) {
+                    throw new RuntimeException("Error loading news files: " + failure.getMessage(), failure);
+                }
+                return false;
+            }
+            nextArticle = article;
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for news files", e);
+        }
+    }
+
+    @Override
+    public NewsArticles next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        NewsArticles article = nextArticle;
+        nextArticle = null;
+        return article;
+    }
+
+    @Override
+    public void close() {
+        finished = true;
+        producer.interrupt();
+        queue.clear();
+    }
+}
@@ -0,0 +1,145 @@
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+// Minibatches over one packed feature matrix and one label matrix (one row per example), built once
+// instead of a DataSet per row. In order, a minibatch is a zero-copy view of consecutive rows. With
+// shuffling, only a row permutation is reshuffled on reset() and each minibatch gathers its rows,
+// so the packed data itself is never copied or reordered. Async is supported, so MultiLayerNetwork.fit
+// prepares batches on a background thread.
+public class PackedDataSetIterator implements DataSetIterator {
+    private static final long serialVersionUID = 1L;
+
+    private final INDArray features;
+    private final INDArray labels;
+    private final int intBatchSize;
+    private final int intExamples;
+    private final Random random;
+    private final int[] order;
+    private int intCursor = 0;
+    private DataSetPreProcessor preProcessor;
+
+    // _random == null keeps the rows in their packed order
+    public PackedDataSetIterator(INDArray _features, INDArray _labels, int _batchSize, Random _random) {
+        if (_features.rows() != _labels.rows()) {
+            throw new IllegalArgumentException("Features have " + _features.rows() + " rows but labels have " + _labels.rows());
+        }
+        features = _features;
+        labels = _labels;
+        intBatchSize = Math.max(1, _batchSize);
+        intExamples = _features.rows();
+        random = _random;
+        order = random == null ? null : new int[intExamples];
+        if (order != null) {
+            for (int i = 0; i < intExamples; i++) {
+                order[i] = i;
+            }
+            shuffle();
+        }
+    }
+
+    public PackedDataSetIterator(DataSet _packed, int _batchSize, Random _random) {
+        this(_packed.getFeatures(), _packed.getLabels(), _batchSize, _random);
+    }
+
+    private void shuffle() {
+        for (int i = intExamples - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int row = order[i];
+            order[i] = order[j];
+            order[j] = row;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return intCursor < intExamples;
+    }
+
+    @Override
+    public DataSet next() {
+        return next(intBatchSize);
+    }
+
+    @Override
+    public DataSet next(int _num) {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int end = Math.min(intExamples, intCursor + _num);
+        DataSet batch;
+        if (order == null) {
+            batch = new DataSet(features.get(NDArrayIndex.interval(intCursor, end), NDArrayIndex.all()),
+                    labels.get(NDArrayIndex.interval(intCursor, end), NDArrayIndex.all()));
+        } else {
+            int[] rows = new int[end - intCursor];
+            System.arraycopy(order, intCursor, rows, 0, rows.length);
+            batch = new DataSet(Nd4j.pullRows(features, 1, rows), Nd4j.pullRows(labels, 1, rows));
+        }
+        intCursor = end;
+        if (preProcessor != null) {
+            preProcessor.preProcess(batch);
+        }
+        return batch;
+    }
+
+    public int numExamples() {
+        return intExamples;
+    }
+
+    @Override
+    public int inputColumns() {
+        return features.columns();
+    }
+
+    @Override
+    public int totalOutcomes() {
+        return labels.columns();
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean asyncSupported() {
+        return true;
+    }
+
+    // Starts the next epoch; a shuffling iterator draws a new row order
+    @Override
+    public void reset() {
+        intCursor = 0;
+        if (order != null) {
+            shuffle();
+        }
+    }
+
+    @Override
+    public int batch() {
+        return intBatchSize;
+    }
+
+    @Override
+    public void setPreProcessor(DataSetPreProcessor _preProcessor) {
+        preProcessor = _preProcessor;
+    }
+
+    @Override
+    public DataSetPreProcessor getPreProcessor() {
+        return preProcessor;
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return null;
+    }
+}
@@ -0,0 +1,280 @@
+import org.deeplearning4j.nn.api.Updater;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.AsyncDataSetIterator;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Data-parallel training by synchronous parameter averaging (the scheme ParallelWrapper uses in its
+// averaging mode): every worker holds a clone of the model, fits its own minibatches, and after each
+// round the parameters and updater state are averaged and broadcast back. Examples are packed into
+// one matrix and minibatches are gathered ahead of the workers by an async prefetching iterator.
+// A held-out validation split drives early stopping, and the best parameters are restored at the end.
+public class ParallelTrainer {
+    private int intWorkers = Runtime.getRuntime().availableProcessors();
+    private int intBatchSize = 10;
+    private int intPrefetch = 4;
+    private int intAveragingFrequency = 1;
+    private int intMaxEpochs = 100;
+    private int intPatience = 10;
+    private double doubValidationFraction = 0.2;
+    private long longSeed = 42;
+    private boolean boolVerbose = false;
+    private final List<EpochStats> epochStats = new ArrayList<>();
+
+    public ParallelTrainer setWorkers(int _workers) {
+        intWorkers = Math.max(1, _workers);
+        return this;
+    }
+
+    public ParallelTrainer setBatchSize(int _batchSize) {
+        intBatchSize = Math.max(1, _batchSize);
+        return this;
+    }
+
+    // Minibatches buffered ahead of the workers
+    public ParallelTrainer setPrefetch(int _prefetch) {
+        intPrefetch = Math.max(1, _prefetch);
+        return this;
+    }
+
+    // Minibatches each worker fits between two averaging steps
+    public ParallelTrainer setAveragingFrequency(int _averagingFrequency) {
+        intAveragingFrequency = Math.max(1, _averagingFrequency);
+        return this;
+    }
+
+    public ParallelTrainer setMaxEpochs(int _maxEpochs) {
+        intMaxEpochs = Math.max(1, _maxEpochs);
+        return this;
+    }
+
+    // Epochs without a better validation score before training stops
+    public ParallelTrainer setPatience(int _patience) {
+        intPatience = Math.max(1, _patience);
+        return this;
+    }
+
+    // Share of the examples held out for early stopping; 0 disables early stopping
+    public ParallelTrainer setValidationFraction(double _validationFraction) {
+        if (_validationFraction < 0 || _validationFraction >= 1) {
+            throw new IllegalArgumentException("Validation fraction must be in [0, 1): " + _validationFraction);
+        }
+        doubValidationFraction = _validationFraction;
+        return this;
+    }
+
+    public ParallelTrainer setSeed(long _seed) {
+        longSeed = _seed;
+        return this;
+    }
+
+    // Print one line per epoch with throughput and validation score
+    public ParallelTrainer setVerbose(boolean _verbose) {
+        boolVerbose = _verbose;
+        return this;
+    }
+
+    public List<EpochStats> getEpochStats() {
+        return Collections.unmodifiableList(epochStats);
+    }
+
+    // Trains _model in place on _examples (one example per DataSet) and returns it
+    public MultiLayerNetwork fit(MultiLayerNetwork _model, List<DataSet> _examples) throws InterruptedException {
+        if (_examples.isEmpty()) {
+            throw new IllegalArgumentException("No training examples");
+        }
+        return fit(_model, DataSet.merge(_examples));
+    }
+
+    // Trains _model in place on a packed DataSet (one example per row) and returns it
+    public MultiLayerNetwork fit(MultiLayerNetwork _model, DataSet _packed) throws InterruptedException {
+        int examples = _packed.numExamples();
+        if (examples == 0) {
+            throw new IllegalArgumentException("No training examples");
+        }
+        epochStats.clear();
+        Random random = new Random(longSeed);
+        int[] order = new int[examples];
+        for (int i = 0; i < examples; i++) {
+            order[i] = i;
+        }
+        for (int i = examples - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int row = order[i];
+            order[i] = order[j];
+            order[j] = row;
+        }
+        int validationCount = Math.min(examples - 1, (int) Math.round(examples * doubValidationFraction));
+        DataSet validation = validationCount > 0 ? rows(_packed, order, 0, validationCount) : null;
+        DataSet training = validationCount > 0 ? rows(_packed, order, validationCount, examples) : _packed;
+        int trainingCount = examples - validationCount;
+        // Reshuffles a row permutation each epoch; the packed training rows are never copied again. Batches
+        // are handed to other threads and held for a whole round, so they are kept out of prefetch workspaces.
+        AsyncDataSetIterator batches = new AsyncDataSetIterator(
+                new PackedDataSetIterator(training, intBatchSize, random), intPrefetch, false);
+
+        int workers = Math.min(intWorkers, (trainingCount + intBatchSize - 1) / intBatchSize);
+        MultiLayerNetwork[] replicas = new MultiLayerNetwork[workers];
+        for (int w = 0; w < workers; w++) {
+            replicas[w] = _model.clone();
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "train-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        double bestScore = Double.POSITIVE_INFINITY;
+        INDArray bestParams = null;
+        int epochsWithoutImprovement = 0;
+        try {
+            for (int epoch = 1; epoch <= intMaxEpochs; epoch++) {
+                if (epoch > 1) {
+                    batches.reset();
+                }
+                long start = System.nanoTime();
+                Metrics.Sample sample = AdvancedNewsClassifier.TRAIN_EPOCH_TIMER.start();
+                try {
+                    runEpoch(replicas, batches, executor);
+                } finally {
+                    sample.stop();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                _model.setParams(replicas[0].params());
+                double score = validation != null ? _model.score(validation) : replicas[0].score();
+                EpochStats stats = new EpochStats(epoch, trainingCount / seconds, score);
+                epochStats.add(stats);
+                if (boolVerbose) {
+                    System.out.println(stats);
+                }
+                if (validation == null) {
+                    continue;
+                }
+                if (score < bestScore) {
+                    bestScore = score;
+                    bestParams = _model.params().dup();
+                    epochsWithoutImprovement = 0;
+                } else if (++epochsWithoutImprovement >= intPatience) {
+                    break;
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Training worker failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            batches.shutdown();
+            executor.shutdownNow();
+        }
+        if (bestParams != null) {
+            _model.setParams(bestParams);
+        }
+        return _model;
+    }
+
+    private static DataSet rows(DataSet _packed, int[] _order, int _from, int _to) {
+        int[] rows = new int[_to - _from];
+        System.arraycopy(_order, _from, rows, 0, rows.length);
+        return new DataSet(Nd4j.pullRows(_packed.getFeatures(), 1, rows), Nd4j.pullRows(_packed.getLabels(), 1, rows));
+    }
+
+    private void runEpoch(MultiLayerNetwork[] _replicas, DataSetIterator _batches, ExecutorService _executor)
+            throws InterruptedException, ExecutionException {
+        while (_batches.hasNext()) {
+            List<Future<?>> round = new ArrayList<>(_replicas.length);
+            List<MultiLayerNetwork> active = new ArrayList<>(_replicas.length);
+            for (MultiLayerNetwork replica : _replicas) {
+                List<DataSet> assigned = new ArrayList<>(intAveragingFrequency);
+                while (assigned.size() < intAveragingFrequency && _batches.hasNext()) {
+                    assigned.add(_batches.next());
+                }
+                if (assigned.isEmpty()) {
+                    break;
+                }
+                active.add(replica);
+                round.add(_executor.submit(() -> {
+                    for (DataSet batch : assigned) {
+                        replica.fit(batch);
+                    }
+                }));
+            }
+            for (Future<?> future : round) {
+                future.get();
+            }
+            average(active, _replicas);
+        }
+    }
+
+    // Averages parameters and updater state over the replicas that trained this round, then syncs every replica
+    private static void average(List<MultiLayerNetwork> _active, MultiLayerNetwork[] _replicas) {
+        if (_replicas.length == 1) {
+            return;
+        }
+        INDArray params = _active.get(0).params().dup();
+        INDArray updaterState = stateOf(_active.get(0));
+        updaterState = updaterState == null ? null : updaterState.dup();
+        for (int i = 1; i < _active.size(); i++) {
+            params.addi(_active.get(i).params());
+            if (updaterState != null) {
+                updaterState.addi(stateOf(_active.get(i)));
+            }
+        }
+        params.divi(_active.size());
+        if (updaterState != null) {
+            updaterState.divi(_active.size());
+        }
+        for (MultiLayerNetwork replica : _replicas) {
+            replica.setParams(params);
+            if (updaterState != null) {
+                stateOf(replica).assign(updaterState);
+            }
+        }
+    }
+
+    private static INDArray stateOf(MultiLayerNetwork _network) {
+        Updater updater = _network.getUpdater();
+        return updater == null ? null : updater.getStateViewArray();
+    }
+
+    public static class EpochStats {
+        private final int intEpoch;
+        private final double doubSamplesPerSecond;
+        private final double doubScore;
+
+        EpochStats(int _epoch, double _samplesPerSecond, double _score) {
+            intEpoch = _epoch;
+            doubSamplesPerSecond = _samplesPerSecond;
+            doubScore = _score;
+        }
+
+        public int getEpoch() {
+            return intEpoch;
+        }
+
+        public double getSamplesPerSecond() {
+            return doubSamplesPerSecond;
+        }
+
+        // Validation loss, or the last training minibatch loss when there is no validation split
+        public double getScore() {
+            return doubScore;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Epoch %d: %.1f samples/sec, score %.5f", intEpoch, doubSamplesPerSecond, doubScore);
+        }
+    }
+}
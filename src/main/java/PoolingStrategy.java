@@ -0,0 +1,237 @@
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import java.util.Arrays;
+import java.util.List;
+
+// How an article's word vectors become one feature row. PER_WORD_MEAN is the original scheme: one feature per
+// known word (the mean of its vector), padded or cut to embeddingSize, so the network width follows the
+// corpus' median article length. The other strategies pool across words instead and always produce
+// getDimension() features, so no size pass is needed and models do not depend on corpus statistics.
+public interface PoolingStrategy {
+    PoolingStrategy PER_WORD_MEAN = new PerWordMean();
+    PoolingStrategy MEAN_OF_VECTORS = new MeanOfVectors();
+    PoolingStrategy MAX = new Max();
+
+    String getName();
+
+    // true when the row is always table.getDimension() wide, whatever the embedding size
+    boolean isFixedWidth();
+
+    // Writes the article's features into _row (1 x width, initially zero). _scratch holds at least
+    // 2 * table.getDimension() doubles and may be overwritten.
+    void pool(int[] _tokenIds, EmbeddingTable _table, INDArray _row, double[] _scratch);
+
+    // Strategies with corpus statistics return a copy fitted to _corpus (preprocessed articles); others return this
+    default PoolingStrategy fit(List<ArticlesEmbedding> _corpus) {
+        return this;
+    }
+
+    // Distinguishes cached embeddings built with different strategies or fitted weights
+    default String getSignature() {
+        return getName();
+    }
+
+    // The names accepted by --pooling; "tfidf" is unfitted until fit() is called
+    static PoolingStrategy forName(String _name) {
+        return switch (_name) {
+            case "per-word-mean" -> PER_WORD_MEAN;
+            case "mean" -> MEAN_OF_VECTORS;
+            case "max" -> MAX;
+            case "tfidf" -> new TfIdf(new int[0], new float[0], 1);
+            default -> throw new IllegalArgumentException("Unknown pooling strategy: " + _name);
+        };
+    }
+
+    final class PerWordMean implements PoolingStrategy {
+        private PerWordMean() {
+        }
+
+        public String getName() {
+            return "per-word-mean";
+        }
+
+        public boolean isFixedWidth() {
+            return false;
+        }
+
+        public void pool(int[] _tokenIds, EmbeddingTable _table, INDArray _row, double[] _scratch) {
+            int width = (int) _row.length();
+            int dimension = _table.getDimension();
+            int column = 0;
+            for (int i = 0; i < _tokenIds.length && column < width; i++) {
+                if (_tokenIds[i] != EmbeddingTable.NOT_FOUND) {
+                    _table.copyRow(_tokenIds[i], _scratch, 0);
+                    // Float accumulation in element order, so values are bit-identical to the old INDArray mean(1)
+                    float sum = 0;
+                    for (int j = 0; j < dimension; j++) {
+                        sum += (float) _scratch[j];
+                    }
+                    _row.putScalar(0, column++, sum / dimension);
+                }
+            }
+        }
+    }
+
+    final class MeanOfVectors implements PoolingStrategy {
+        private MeanOfVectors() {
+        }
+
+        public String getName() {
+            return "mean";
+        }
+
+        public boolean isFixedWidth() {
+            return true;
+        }
+
+        public void pool(int[] _tokenIds, EmbeddingTable _table, INDArray _row, double[] _scratch) {
+            weightedMean(_tokenIds, _table, _row, _scratch, null);
+        }
+    }
+
+    final class Max implements PoolingStrategy {
+        private Max() {
+        }
+
+        public String getName() {
+            return "max";
+        }
+
+        public boolean isFixedWidth() {
+            return true;
+        }
+
+        public void pool(int[] _tokenIds, EmbeddingTable _table, INDArray _row, double[] _scratch) {
+            int dimension = _table.getDimension();
+            Arrays.fill(_scratch, dimension, 2 * dimension, Double.NEGATIVE_INFINITY);
+            boolean any = false;
+            for (int id : _tokenIds) {
+                if (id != EmbeddingTable.NOT_FOUND) {
+                    _table.copyRow(id, _scratch, 0);
+                    for (int j = 0; j < dimension; j++) {
+                        _scratch[dimension + j] = Math.max(_scratch[dimension + j], _scratch[j]);
+                    }
+                    any = true;
+                }
+            }
+            if (any) {
+                for (int j = 0; j < dimension; j++) {
+                    _row.putScalar(0, j, _scratch[dimension + j]);
+                }
+            }
+        }
+    }
+
+    // Mean of the word vectors weighted by inverse document frequency; repeated words count once per
+    // occurrence, which supplies the term frequency. Weights are kept sparsely for the vocabulary rows seen
+    // while fitting; any other row gets the weight of a word that appeared in no document.
+    final class TfIdf implements PoolingStrategy {
+        private final int[] rows; // ascending vocabulary rows
+        private final float[] weights; // idf of rows[i]
+        private final float floatUnseenWeight;
+
+        public TfIdf(int[] _rows, float[] _weights, float _unseenWeight) {
+            if (_rows.length != _weights.length) {
+                throw new IllegalArgumentException("Rows and weights differ in length");
+            }
+            for (int i = 1; i < _rows.length; i++) {
+                if (_rows[i] <= _rows[i - 1]) {
+                    throw new IllegalArgumentException("Rows must be strictly ascending");
+                }
+            }
+            rows = _rows.clone();
+            weights = _weights.clone();
+            floatUnseenWeight = _unseenWeight;
+        }
+
+        public String getName() {
+            return "tfidf";
+        }
+
+        public boolean isFixedWidth() {
+            return true;
+        }
+
+        // Smoothed idf: ln((1 + n) / (1 + df)) + 1 over the distinct known words of each article
+        @Override
+        public PoolingStrategy fit(List<ArticlesEmbedding> _corpus) {
+            int[] documentFrequency = new int[0];
+            int maxRow = -1;
+            for (ArticlesEmbedding article : _corpus) {
+                int[] ids = article.getTokenIds();
+                int[] distinct = Arrays.stream(ids).filter(id -> id != EmbeddingTable.NOT_FOUND).distinct().toArray();
+                for (int id : distinct) {
+                    if (id >= documentFrequency.length) {
+                        documentFrequency = Arrays.copyOf(documentFrequency, Math.max(id + 1, documentFrequency.length * 2));
+                    }
+                    documentFrequency[id]++;
+                    maxRow = Math.max(maxRow, id);
+                }
+            }
+            int count = 0;
+            for (int row = 0; row <= maxRow; row++) {
+                count += documentFrequency[row] > 0 ? 1 : 0;
+            }
+            int[] fittedRows = new int[count];
+            float[] fittedWeights = new float[count];
+            double documents = _corpus.size();
+            int next = 0;
+            for (int row = 0; row <= maxRow; row++) {
+                if (documentFrequency[row] > 0) {
+                    fittedRows[next] = row;
+                    fittedWeights[next++] = (float) (Math.log((1 + documents) / (1 + documentFrequency[row])) + 1);
+                }
+            }
+            return new TfIdf(fittedRows, fittedWeights, (float) (Math.log(1 + documents) + 1));
+        }
+
+        public float getWeight(int _row) {
+            int index = Arrays.binarySearch(rows, _row);
+            return index >= 0 ? weights[index] : floatUnseenWeight;
+        }
+
+        public void pool(int[] _tokenIds, EmbeddingTable _table, INDArray _row, double[] _scratch) {
+            weightedMean(_tokenIds, _table, _row, _scratch, this);
+        }
+
+        @Override
+        public String getSignature() {
+            return getName() + "-" + Integer.toHexString(31 * (31 * Arrays.hashCode(rows) + Arrays.hashCode(weights))
+                    + Float.hashCode(floatUnseenWeight));
+        }
+
+        public int[] getRows() {
+            return rows.clone();
+        }
+
+        public float[] getWeights() {
+            return weights.clone();
+        }
+
+        public float getUnseenWeight() {
+            return floatUnseenWeight;
+        }
+    }
+
+    // Plain mean when _idf is null
+    private static void weightedMean(int[] _tokenIds, EmbeddingTable _table, INDArray _row, double[] _scratch, TfIdf _idf) {
+        int dimension = _table.getDimension();
+        Arrays.fill(_scratch, dimension, 2 * dimension, 0);
+        double total = 0;
+        for (int id : _tokenIds) {
+            if (id != EmbeddingTable.NOT_FOUND) {
+                double weight = _idf == null ? 1 : _idf.getWeight(id);
+                _table.copyRow(id, _scratch, 0);
+                for (int j = 0; j < dimension; j++) {
+                    _scratch[dimension + j] += weight * _scratch[j];
+                }
+                total += weight;
+            }
+        }
+        if (total > 0) {
+            for (int j = 0; j < dimension; j++) {
+                _row.putScalar(0, j, _scratch[dimension + j] / total);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// One shard of a ShardedRunner job, normally in its own JVM: reads the HTML files listed in a shard file,
+// cleans, embeds and classifies them with a saved model, and writes a JSON result with the predictions,
+// the shard's known-word histogram (EmbeddingSizeEstimator.getCounts) and its metric counters.
+// Usage: ShardWorker --model <bundle.zip> --files <shard-k.txt> --output <shard-k.json> [--shard <k>] [--threads <n>]
+public class ShardWorker {
+    public static void main(String[] args) throws Exception {
+        String modelFile = null;
+        String filesList = null;
+        String outputFile = null;
+        int shard = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--model" -> modelFile = args[i + 1];
+                case "--files" -> filesList = args[i + 1];
+                case "--output" -> outputFile = args[i + 1];
+                case "--shard" -> shard = Integer.parseInt(args[i + 1]);
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (modelFile == null || filesList == null || outputFile == null) {
+            throw new IllegalArgumentException("--model, --files and --output are required");
+        }
+        List<Path> files = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get(filesList), StandardCharsets.UTF_8)) {
+            if (!line.isBlank()) {
+                files.add(Paths.get(line));
+            }
+        }
+        AdvancedNewsClassifier classifier = new AdvancedNewsClassifier();
+        classifier.preprocessThreads = threads;
+        JsonObject result = run(classifier, ModelBundle.load(new File(modelFile)), files, shard);
+        Files.write(Paths.get(outputFile), result.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Results are listed in _files order; each has the file, title, predicted label and class index, or an
+    // error for files without article text
+    public static JsonObject run(AdvancedNewsClassifier _classifier, ModelBundle _bundle, List<Path> _files, int _shard) throws Exception {
+        _classifier.loadModel(_bundle);
+        List<ArticlesEmbedding> articles = new ArrayList<>();
+        for (Path file : _files) {
+            NewsArticles news = HtmlExtractor.extract(file);
+            ArticlesEmbedding article = new ArticlesEmbedding(_classifier.getContext(), news.getNewsTitle(), news.getNewsContent(), NewsArticles.DataType.Testing, "-1");
+            article.setEmbeddingSize(_bundle.getEmbeddingSize());
+            articles.add(article);
+        }
+        EmbeddingSizeEstimator sizes = new EmbeddingSizeEstimator();
+        ArticlesEmbedding.preprocess(articles, _classifier.preprocessThreads, sizes);
+
+        List<ArticlesEmbedding> batch = new ArrayList<>();
+        List<Integer> batchRows = new ArrayList<>();
+        int[] classIndices = new int[articles.size()];
+        for (int i = 0; i < articles.size(); i++) {
+            ArticlesEmbedding article = articles.get(i);
+            classIndices[i] = -1;
+            if (article.getRawContent().equals(HtmlParser.CONTENT_NOT_FOUND) || article.getNewsContent().isEmpty()) {
+                continue; // no articleBody, or nothing left after cleaning
+            }
+            batch.add(article);
+            batchRows.add(i);
+            if (batch.size() == _classifier.predictBatchSize) {
+                flush(_classifier, batch, batchRows, classIndices);
+            }
+        }
+        flush(_classifier, batch, batchRows, classIndices);
+
+        JsonArray results = new JsonArray();
+        for (int i = 0; i < articles.size(); i++) {
+            JsonObject entry = new JsonObject();
+            entry.addProperty("file", _files.get(i).toString());
+            entry.addProperty("title", articles.get(i).getNewsTitle());
+            if (classIndices[i] < 0) {
+                entry.addProperty("error", "No article text");
+            } else {
+                entry.addProperty("label", _bundle.getLabel(classIndices[i]));
+                entry.addProperty("classIndex", classIndices[i]);
+            }
+            results.add(entry);
+        }
+        JsonArray histogram = new JsonArray();
+        for (long count : sizes.getCounts()) {
+            histogram.add(count);
+        }
+        JsonObject output = new JsonObject();
+        output.addProperty("shard", _shard);
+        output.add("results", results);
+        output.add("knownWordHistogram", histogram);
+        output.add("counters", Metrics.getGlobal().toJson().getAsJsonObject("counters"));
+        return output;
+    }
+
+    private static void flush(AdvancedNewsClassifier _classifier, List<ArticlesEmbedding> _batch, List<Integer> _rows,
+                              int[] _classIndices) throws Exception {
+        if (_batch.isEmpty()) {
+            return;
+        }
+        int[] predicted = _classifier.predictBatch(_batch);
+        for (int i = 0; i < predicted.length; i++) {
+            _classIndices[_rows.get(i)] = predicted[i];
+        }
+        _batch.clear();
+        _rows.clear();
+    }
+}
@@ -0,0 +1,224 @@
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Batch classification of a corpus split across worker processes. The news files of a directory are sorted
+// by name and dealt round-robin into shards; each shard runs as a ShardWorker in its own JVM (cleaning,
+// embedding and prediction with the same saved model), and the shard results are merged: predictions
+// sorted by file, known-word histograms added (so the merged embedding size is the corpus-wide median)
+// and metric counters summed. For a fixed model the merged output does not depend on the shard count.
+// Shards can also be run elsewhere (ShardWorker on other nodes) and merged afterwards with --merge-only.
+// Usage: ShardedRunner --model <bundle.zip> --input <dir> --work <dir> [--shards <n>] [--output <results.json>]
+//                      [--threads <per worker>] [--merge-only true]
+public class ShardedRunner {
+    public static void main(String[] args) throws Exception {
+        String modelFile = null;
+        String inputDirectory = null;
+        String workDirectory = null;
+        String outputFile = null;
+        int shards = 2;
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        boolean mergeOnly = false;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--model" -> modelFile = args[i + 1];
+                case "--input" -> inputDirectory = args[i + 1];
+                case "--work" -> workDirectory = args[i + 1];
+                case "--output" -> outputFile = args[i + 1];
+                case "--shards" -> shards = Integer.parseInt(args[i + 1]);
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "--merge-only" -> mergeOnly = Boolean.parseBoolean(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (workDirectory == null) {
+            throw new IllegalArgumentException("--work <dir> is required");
+        }
+        Path work = Paths.get(workDirectory);
+        if (!mergeOnly) {
+            if (modelFile == null || inputDirectory == null) {
+                throw new IllegalArgumentException("--model and --input are required unless --merge-only");
+            }
+            shards = partition(Paths.get(inputDirectory), shards, work);
+            runWorkers(Paths.get(modelFile), work, shards, threads);
+        } else {
+            shards = countShards(work);
+        }
+        JsonObject merged = merge(work, shards);
+        Path output = outputFile != null ? Paths.get(outputFile) : work.resolve("results.json");
+        Files.write(output, merged.toString().getBytes(StandardCharsets.UTF_8));
+        System.out.println(summary(merged) + " -> " + output);
+    }
+
+    // Writes one file list per shard into _work; returns the number of shards, which is smaller than
+    // _shards when there are fewer files. Lists and results left by an earlier run, whatever its shard count,
+    // are deleted first, so --merge-only never counts or merges them.
+    public static int partition(Path _input, int _shards, Path _work) throws IOException {
+        if (_shards < 1) {
+            throw new IllegalArgumentException("Need at least one shard: " + _shards);
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> directory = Files.newDirectoryStream(_input)) {
+            for (Path file : directory) {
+                if (Toolkit.isNewsFile(file)) {
+                    files.add(file.toAbsolutePath());
+                }
+            }
+        }
+        if (files.isEmpty()) {
+            throw new IOException("No news files in " + _input);
+        }
+        files.sort(Comparator.comparing(file -> file.getFileName().toString()));
+        int shards = Math.min(_shards, files.size());
+        List<List<String>> lists = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            lists.add(new ArrayList<>());
+        }
+        for (int i = 0; i < files.size(); i++) {
+            lists.get(i % shards).add(files.get(i).toString());
+        }
+        Files.createDirectories(_work);
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(_work, "shard-*.{json,txt}")) {
+            for (Path file : stale) {
+                Files.delete(file);
+            }
+        }
+        for (int shard = 0; shard < shards; shard++) {
+            Files.write(filesList(_work, shard), lists.get(shard), StandardCharsets.UTF_8);
+        }
+        return shards;
+    }
+
+    // Starts every shard as a child JVM on this process' classpath and waits for all of them;
+    // each worker's output goes to shard-<k>.log
+    public static void runWorkers(Path _model, Path _work, int _shards, int _threads) throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> processes = new ArrayList<>();
+        try {
+            for (int shard = 0; shard < _shards; shard++) {
+                ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), "ShardWorker",
+                        "--model", _model.toAbsolutePath().toString(),
+                        "--files", filesList(_work, shard).toString(),
+                        "--output", resultFile(_work, shard).toString(),
+                        "--shard", String.valueOf(shard),
+                        "--threads", String.valueOf(_threads));
+                builder.redirectErrorStream(true);
+                builder.redirectOutput(logFile(_work, shard).toFile());
+                processes.add(builder.start());
+            }
+            for (int shard = 0; shard < _shards; shard++) {
+                int exitCode = processes.get(shard).waitFor();
+                if (exitCode != 0) {
+                    throw new IOException("Shard " + shard + " failed with exit code " + exitCode + ", see " + logFile(_work, shard));
+                }
+            }
+        } finally {
+            for (Process process : processes) {
+                process.destroy();
+            }
+        }
+    }
+
+    // Combines shard-0.json .. shard-<n-1>.json from _work; every shard must be present
+    public static JsonObject merge(Path _work, int _shards) throws IOException {
+        List<JsonObject> results = new ArrayList<>();
+        EmbeddingSizeEstimator sizes = new EmbeddingSizeEstimator();
+        Map<String, Long> counters = new TreeMap<>();
+        for (int shard = 0; shard < _shards; shard++) {
+            Path file = resultFile(_work, shard);
+            if (!Files.isRegularFile(file)) {
+                throw new IOException("Missing result for shard " + shard + ": " + file);
+            }
+            JsonObject shardResult = new JsonParser().parse(Files.readString(file, StandardCharsets.UTF_8)).getAsJsonObject();
+            if (shardResult.get("shard").getAsInt() != shard) {
+                throw new IOException(file + " holds the result of shard " + shardResult.get("shard").getAsInt());
+            }
+            for (JsonElement entry : shardResult.getAsJsonArray("results")) {
+                results.add(entry.getAsJsonObject());
+            }
+            JsonArray histogram = shardResult.getAsJsonArray("knownWordHistogram");
+            long[] counts = new long[histogram.size()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = histogram.get(i).getAsLong();
+            }
+            sizes.merge(EmbeddingSizeEstimator.fromCounts(counts));
+            for (Map.Entry<String, JsonElement> counter : shardResult.getAsJsonObject("counters").entrySet()) {
+                counters.merge(counter.getKey(), counter.getValue().getAsLong(), Long::sum);
+            }
+        }
+        results.sort(Comparator.comparing(entry -> entry.get("file").getAsString()));
+
+        JsonArray mergedResults = new JsonArray();
+        results.forEach(mergedResults::add);
+        JsonArray mergedHistogram = new JsonArray();
+        for (long count : sizes.getCounts()) {
+            mergedHistogram.add(count);
+        }
+        JsonObject mergedCounters = new JsonObject();
+        counters.forEach(mergedCounters::addProperty);
+        JsonObject merged = new JsonObject();
+        merged.addProperty("shards", _shards);
+        merged.addProperty("articles", results.size());
+        merged.addProperty("embeddingSize", sizes.getEmbeddingSize());
+        merged.add("knownWordHistogram", mergedHistogram);
+        merged.add("counters", mergedCounters);
+        merged.add("results", mergedResults);
+        return merged;
+    }
+
+    // e.g. "12 articles from 3 shards (label 1: 7, label 2: 5)"
+    public static String summary(JsonObject _merged) {
+        Map<String, Integer> perLabel = new TreeMap<>();
+        for (JsonElement entry : _merged.getAsJsonArray("results")) {
+            JsonObject result = entry.getAsJsonObject();
+            perLabel.merge(result.has("label") ? "label " + result.get("label").getAsString() : "errors", 1, Integer::sum);
+        }
+        StringBuilder text = new StringBuilder();
+        text.append(_merged.get("articles").getAsInt()).append(" articles from ").append(_merged.get("shards").getAsInt()).append(" shards (");
+        String separator = "";
+        for (Map.Entry<String, Integer> entry : perLabel.entrySet()) {
+            text.append(separator).append(entry.getKey()).append(": ").append(entry.getValue());
+            separator = ", ";
+        }
+        return text.append(")").toString();
+    }
+
+    // The file lists written by the last partition fix the shard count, so merge reports a missing result instead
+    // of silently merging fewer shards; results copied into a directory without lists are counted directly
+    static int countShards(Path _work) {
+        boolean partitioned = Files.isRegularFile(filesList(_work, 0));
+        int shards = 0;
+        while (Files.isRegularFile(partitioned ? filesList(_work, shards) : resultFile(_work, shards))) {
+            shards++;
+        }
+        if (shards == 0) {
+            throw new IllegalArgumentException("No shard results in " + _work);
+        }
+        return shards;
+    }
+
+    static Path filesList(Path _work, int _shard) {
+        return _work.resolve("shard-" + _shard + ".txt");
+    }
+
+    static Path resultFile(Path _work, int _shard) {
+        return _work.resolve("shard-" + _shard + ".json");
+    }
+
+    static Path logFile(Path _work, int _shard) {
+        return _work.resolve("shard-" + _shard + ".log");
+    }
+}
@@ -0,0 +1,115 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+// Case-insensitive stopword set built once as a char trie. Trie edges live in an open-addressing
+// table keyed by (node, folded char), so isStopWord walks the word once and never allocates.
+public class StopWordFilter {
+    private static final long EMPTY_KEY = -1L;
+
+    private final String[] words;
+    private final int minLength;
+    private final int maxLength;
+    private final long[] edgeKeys;
+    private final int[] edgeTargets;
+    private final int edgeMask;
+    private final boolean[] terminal;
+
+    public StopWordFilter(String[] _stopWords) {
+        this(Arrays.asList(_stopWords));
+    }
+
+    public StopWordFilter(Collection<String> _stopWords) {
+        words = _stopWords.toArray(new String[0]);
+        int totalChars = 0;
+        int shortest = Integer.MAX_VALUE;
+        int longest = 0;
+        for (String word : words) {
+            totalChars += word.length();
+            shortest = Math.min(shortest, word.length());
+            longest = Math.max(longest, word.length());
+        }
+        minLength = words.length == 0 ? 1 : shortest;
+        maxLength = longest;
+        int capacity = Integer.highestOneBit(Math.max(2, totalChars * 2 - 1)) << 1; // load factor <= 0.5
+        edgeKeys = new long[capacity];
+        Arrays.fill(edgeKeys, EMPTY_KEY);
+        edgeTargets = new int[capacity];
+        edgeMask = capacity - 1;
+        terminal = new boolean[totalChars + 1];
+
+        int nodeCount = 1; // node 0 is the root
+        for (String word : words) {
+            int node = 0;
+            for (int i = 0; i < word.length(); i++) {
+                long key = edgeKey(node, fold(word.charAt(i)));
+                int slot = findSlot(key);
+                if (edgeKeys[slot] == EMPTY_KEY) {
+                    edgeKeys[slot] = key;
+                    edgeTargets[slot] = nodeCount++;
+                }
+                node = edgeTargets[slot];
+            }
+            terminal[node] = true;
+        }
+    }
+
+    // One word per line; blank lines and lines starting with '#' are ignored
+    public static StopWordFilter fromFile(Path _file) throws IOException {
+        List<String> stopWords = new ArrayList<>();
+        for (String line : Files.readAllLines(_file, StandardCharsets.UTF_8)) {
+            String word = line.trim();
+            if (!word.isEmpty() && !word.startsWith("#")) {
+                stopWords.add(word);
+            }
+        }
+        return new StopWordFilter(stopWords);
+    }
+
+    public boolean isStopWord(CharSequence _word) {
+        int length = _word.length();
+        if (length < minLength || length > maxLength) {
+            return false;
+        }
+        int node = 0;
+        for (int i = 0; i < length; i++) {
+            int slot = findSlot(edgeKey(node, fold(_word.charAt(i))));
+            if (edgeKeys[slot] == EMPTY_KEY) {
+                return false;
+            }
+            node = edgeTargets[slot];
+        }
+        return terminal[node];
+    }
+
+    private int findSlot(long _key) {
+        int h = (int) (_key ^ (_key >>> 17)) * 0x9E3779B9;
+        int slot = (h ^ (h >>> 16)) & edgeMask;
+        while (edgeKeys[slot] != EMPTY_KEY && edgeKeys[slot] != _key) {
+            slot = (slot + 1) & edgeMask;
+        }
+        return slot;
+    }
+
+    private static long edgeKey(int _node, char _c) {
+        return ((long) _node << 16) | _c;
+    }
+
+    // Same folding as String.equalsIgnoreCase
+    private static char fold(char _c) {
+        return Character.toLowerCase(Character.toUpperCase(_c));
+    }
+
+    public int size() {
+        return words.length;
+    }
+
+    public String[] getWords() {
+        return words.clone();
+    }
+}
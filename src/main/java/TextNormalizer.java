@@ -0,0 +1,74 @@
+// Cleaning and tokenisation without regexes or intermediate strings. clean() lower-cases, drops everything
+// but 'a'-'z', '0'-'9' and whitespace, and collapses whitespace in a single pass over a per-thread buffer;
+// tokenize() splits processed text on whitespace into a right-sized array that later stages share instead
+// of each calling split("\\s+") again.
+public final class TextNormalizer {
+    private static final String[] NO_TOKENS = new String[0];
+    private static final ThreadLocal<char[]> buffer = ThreadLocal.withInitial(() -> new char[8192]);
+
+    private TextNormalizer() {
+    }
+
+    // Same tokens as the old toLowerCase + filter + trim chain; runs of \s whitespace become one space
+    public static String clean(CharSequence _text) {
+        int length = _text.length();
+        char[] out = buffer.get();
+        if (out.length < length) {
+            out = new char[Math.max(length, out.length * 2)];
+            buffer.set(out);
+        }
+        int size = 0;
+        boolean space = false;
+        for (int i = 0; i < length; i++) {
+            char c = _text.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            } else if (c >= 128) {
+                c = Character.toLowerCase(c); // e.g. U+212A KELVIN SIGN -> 'k', as String.toLowerCase does
+            }
+            if (isSpace(c)) {
+                space = true;
+            } else if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || Character.isWhitespace(c)) {
+                // Other whitespace (e.g. U+3000) was always kept verbatim and never split on, so it stays
+                if (space && size > 0) {
+                    out[size++] = ' ';
+                }
+                space = false;
+                out[size++] = c;
+            }
+        }
+        return new String(out, 0, size);
+    }
+
+    // Tokens separated by whitespace, with no empty tokens
+    public static String[] tokenize(String _text) {
+        int length = _text.length();
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            if (!isSpace(_text.charAt(i)) && (i == 0 || isSpace(_text.charAt(i - 1)))) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return NO_TOKENS;
+        }
+        String[] tokens = new String[count];
+        int token = 0;
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean separator = i == length || isSpace(_text.charAt(i));
+            if (separator && start != -1) {
+                tokens[token++] = _text.substring(start, i);
+                start = -1;
+            } else if (!separator && start == -1) {
+                start = i;
+            }
+        }
+        return tokens;
+    }
+
+    // The characters \s matches
+    private static boolean isSpace(char _c) {
+        return _c == ' ' || _c == '\t' || _c == '\n' || _c == '\u000B' || _c == '\f' || _c == '\r';
+    }
+}
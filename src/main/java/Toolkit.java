@@ -5,18 +5,43 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 public class Toolkit {
-    public static List<String> listVocabulary = null;
-    public static List<double[]> listVectors = null;
+    // Per instance, so loading vectors never changes what another toolkit (or a ClassifierContext built from one) sees
+    private List<String> listVocabulary = null;
+    private List<double[]> listVectors = null;
+    private GloveStore gloveStore = null;
     private static final String FILENAME_GLOVE = "glove.6B.50d_Reduced.csv";
+    private static final String FILENAME_GLOVE_BINARY = "glove.6B.50d_Reduced.bin"; // produced once by GloveStore.main
     public static final String[] STOPWORDS = {"a", "able", "about", "across", "after", "all", "almost", "also", "am", "among", "an", "and", "any", "are", "as", "at", "be", "because", "been", "but", "by", "can", "cannot", "could", "dear", "did", "do", "does", "either", "else", "ever", "every", "for", "from", "get", "got", "had", "has", "have", "he", "her", "hers", "him", "his", "how", "however", "i", "if", "in", "into", "is", "it", "its", "just", "least", "let", "like", "likely", "may", "me", "might", "most", "must", "my", "neither", "no", "nor", "not", "of", "off", "often", "on", "only", "or", "other", "our", "own", "rather", "said", "say", "says", "she", "should", "since", "so", "some", "than", "that", "the", "their", "them", "then", "there", "these", "they", "this", "tis", "to", "too", "twas", "us", "wants", "was", "we", "were", "what", "when", "where", "which", "while", "who", "whom", "why", "will", "with", "would", "yet", "you", "your"};
+    public static final StopWordFilter STOPWORD_FILTER = new StopWordFilter(STOPWORDS);
+    private static final Metrics.Timer GLOVE_LOAD_TIMER = Metrics.getGlobal().timer("glove_load", "GloVe vocabulary load (CSV parse or binary map)");
 
     public void loadGlove() throws IOException {
+        Metrics.Sample sample = GLOVE_LOAD_TIMER.start();
+        try {
+            readGlove();
+        } finally {
+            sample.stop();
+        }
+    }
+
+    private void readGlove() throws IOException {
+        URL binaryResource = Toolkit.class.getClassLoader().getResource(FILENAME_GLOVE_BINARY);
+        if (binaryResource != null) {
+            try {
+                loadGloveStore(Paths.get(binaryResource.toURI()));
+                return;
+            } catch (URISyntaxException e) {
+                throw new IOException("Failed to load GloVe store: " + e.getMessage(), e);
+            }
+        }
+        gloveStore = null;
         listVocabulary = new ArrayList<>(1000);
         listVectors = new ArrayList<>(1000);
         try(BufferedReader myReader = new BufferedReader(new FileReader(Toolkit.getFileFromResource(FILENAME_GLOVE)))){
@@ -35,6 +60,14 @@ public class Toolkit {
         }
     }
 
+    // Memory-mapped alternative to CSV parsing: no per-row work at load, rows are read on demand
+    public void loadGloveStore(Path _binary) throws IOException {
+        // Timed by loadGlove when called from there; direct callers time their own
+        gloveStore = GloveStore.open(_binary);
+        listVocabulary = gloveStore.asVocabularyList();
+        listVectors = gloveStore.asVectorList();
+    }
+
     private static File getFileFromResource(String fileName) throws URISyntaxException {
         ClassLoader classLoader = Toolkit.class.getClassLoader();
         URL resource = classLoader.getResource(fileName);
@@ -59,28 +92,19 @@ public class Toolkit {
             Arrays.sort(arrayOfFiles, (f1, f2) -> f1.getName().compareTo(f2.getName()));
             List <File> listOfFiles = new ArrayList<>();
             for (File file: arrayOfFiles){
-                // Process HTML files (.htm, .html) and skip system/hidden files
-                if (file.isFile() && 
-                    !file.getName().startsWith(".") && 
-                    (file.getName().toLowerCase().endsWith(".htm") || 
-                     file.getName().toLowerCase().endsWith(".html"))) {
+                if (isNewsFile(file.toPath())) {
                     listOfFiles.add(file);
                 }
             }
             for (File file : listOfFiles){
-                String htmlContent;
+                NewsArticles article;
                 try {
-                    htmlContent = new String(Files.readAllBytes(Paths.get(file.getPath())));
+                    article = HtmlExtractor.extract(file.toPath());
                 } catch (IOException e){
                     System.err.println("Error finding file");
                     continue;
                 }
-                String title = HtmlParser.getNewsTitle(htmlContent);
-                String content = HtmlParser.getNewsContent(htmlContent);
-                NewsArticles.DataType type = HtmlParser.getDataType(htmlContent);
-                String label = HtmlParser.getLabel(htmlContent);
-                NewsArticles newsArticle = new NewsArticles(title,content,type,label);
-                listNews.add(newsArticle);
+                listNews.add(article);
             }
         }
         } catch (Exception e) {
@@ -89,11 +113,49 @@ public class Toolkit {
         return listNews;
     }
 
-    public static List<String> getListVocabulary() {
+    // Streams the News resource directory instead of loading it whole; at most _capacity parsed
+    // articles are buffered ahead of the consumer. Files arrive in directory order, not sorted.
+    public NewsStream streamNews(int _capacity) {
+        try {
+            URL newsUrl = Toolkit.class.getClassLoader().getResource("News");
+            if (newsUrl == null) {
+                throw new RuntimeException("News directory not found in resources");
+            }
+            return streamNews(Paths.get(newsUrl.toURI()), _capacity);
+        } catch (URISyntaxException e) {
+            throw new RuntimeException("Error loading news files: " + e.getMessage(), e);
+        }
+    }
+
+    public NewsStream streamNews(Path _directory, int _capacity) {
+        try {
+            return new NewsStream(Files.newDirectoryStream(_directory), _capacity);
+        } catch (IOException e) {
+            throw new RuntimeException("Error loading news files: " + e.getMessage(), e);
+        }
+    }
+
+    // Process HTML files (.htm, .html) and skip system/hidden files
+    public static boolean isNewsFile(Path _file) {
+        String name = _file.getFileName().toString();
+        String lowerName = name.toLowerCase();
+        return Files.isRegularFile(_file) && !name.startsWith(".") &&
+                (lowerName.endsWith(".htm") || lowerName.endsWith(".html"));
+    }
+
+    public static NewsArticles parseNews(String _htmlContent) {
+        return HtmlExtractor.extract(_htmlContent);
+    }
+
+    public List<String> getListVocabulary() {
         return listVocabulary;
     }
 
-    public static List<double[]> getlistVectors() {
+    public List<double[]> getlistVectors() {
         return listVectors;
     }
+
+    public GloveStore getGloveStore() {
+        return gloveStore;
+    }
 }
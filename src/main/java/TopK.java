@@ -0,0 +1,117 @@
+import java.util.Arrays;
+
+// Bounded min-heap keeping the _k highest-scoring ids seen so far; O(log k) per offer and no boxing.
+// Ties are broken towards the lower id so results are deterministic.
+public class TopK {
+    private final int intCapacity;
+    private final int[] ids;
+    private final double[] scores;
+    private int intSize = 0;
+
+    public TopK(int _k) {
+        if (_k <= 0) {
+            throw new IllegalArgumentException("k must be positive: " + _k);
+        }
+        intCapacity = _k;
+        ids = new int[_k];
+        scores = new double[_k];
+    }
+
+    public void offer(int _id, double _score) {
+        if (intSize < intCapacity) {
+            ids[intSize] = _id;
+            scores[intSize] = _score;
+            siftUp(intSize++);
+        } else if (better(_id, _score, ids[0], scores[0])) {
+            ids[0] = _id;
+            scores[0] = _score;
+            siftDown(0);
+        }
+    }
+
+    // Lowest score currently kept, i.e. what a candidate must beat once the heap is full
+    public double threshold() {
+        return intSize < intCapacity ? Double.NEGATIVE_INFINITY : scores[0];
+    }
+
+    public int size() {
+        return intSize;
+    }
+
+    // Ids ordered best first
+    public int[] getIds() {
+        int[] order = sortedOrder();
+        int[] sortedIds = new int[intSize];
+        for (int i = 0; i < intSize; i++) {
+            sortedIds[i] = ids[order[i]];
+        }
+        return sortedIds;
+    }
+
+    // Scores ordered best first, aligned with getIds()
+    public double[] getScores() {
+        int[] order = sortedOrder();
+        double[] sortedScores = new double[intSize];
+        for (int i = 0; i < intSize; i++) {
+            sortedScores[i] = scores[order[i]];
+        }
+        return sortedScores;
+    }
+
+    private int[] sortedOrder() {
+        Integer[] order = new Integer[intSize];
+        for (int i = 0; i < intSize; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> a.intValue() == b.intValue() ? 0 : better(ids[a], scores[a], ids[b], scores[b]) ? -1 : 1);
+        int[] result = new int[intSize];
+        for (int i = 0; i < intSize; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    private static boolean better(int _id, double _score, int _otherId, double _otherScore) {
+        int comparison = Double.compare(_score, _otherScore);
+        return comparison > 0 || (comparison == 0 && _id < _otherId);
+    }
+
+    private void siftUp(int _index) {
+        while (_index > 0) {
+            int parent = (_index - 1) >>> 1;
+            if (!better(ids[parent], scores[parent], ids[_index], scores[_index])) {
+                break;
+            }
+            swap(parent, _index);
+            _index = parent;
+        }
+    }
+
+    private void siftDown(int _index) {
+        while (true) {
+            int worst = _index;
+            int left = 2 * _index + 1;
+            int right = left + 1;
+            if (left < intSize && better(ids[worst], scores[worst], ids[left], scores[left])) {
+                worst = left;
+            }
+            if (right < intSize && better(ids[worst], scores[worst], ids[right], scores[right])) {
+                worst = right;
+            }
+            if (worst == _index) {
+                return;
+            }
+            swap(worst, _index);
+            _index = worst;
+        }
+    }
+
+    private void swap(int _a, int _b) {
+        int id = ids[_a];
+        ids[_a] = ids[_b];
+        ids[_b] = id;
+        double score = scores[_a];
+        scores[_a] = scores[_b];
+        scores[_b] = score;
+    }
+}
@@ -0,0 +1,15 @@
+import java.util.function.IntPredicate;
+
+// Cosine-similarity search over a fixed set of vectors identified by row number.
+public interface VectorIndex {
+    int size();
+
+    int getDimension();
+
+    // The _k rows most similar to _query, skipping rows for which _exclude is true (may be null)
+    TopK search(double[] _query, int _k, IntPredicate _exclude);
+
+    default TopK search(double[] _query, int _k) {
+        return search(_query, _k, null);
+    }
+}
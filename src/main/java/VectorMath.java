@@ -0,0 +1,120 @@
+// Allocation-free kernels over raw double[] rows for hot similarity loops. Vector remains the reference
+// implementation: the binary kernels follow its semantics (a shorter operand behaves as if padded with
+// -1.0, as Vector.reSize does) but never resize, copy or bounds-check per element. Loops are kept as
+// plain counted loops over arrays: C2 unrolls those itself, and hand-unrolled variants measured slower.
+public final class VectorMath {
+    private VectorMath() {
+    }
+
+    public static double dotProduct(double[] _a, double[] _b) {
+        int common = Math.min(_a.length, _b.length);
+        double dotProduct = 0;
+        for (int i = 0; i < common; i++) {
+            dotProduct += _a[i] * _b[i];
+        }
+        // Padded positions contribute longer[i] * -1
+        double[] longer = _a.length > _b.length ? _a : _b;
+        for (int i = common; i < longer.length; i++) {
+            dotProduct -= longer[i];
+        }
+        return dotProduct;
+    }
+
+    // Dot product of two equal-length slices, e.g. rows of a row-major embedding matrix
+    public static double dotProduct(double[] _a, int _aOffset, double[] _b, int _bOffset, int _length) {
+        double dotProduct = 0;
+        for (int i = 0; i < _length; i++) {
+            dotProduct += _a[_aOffset + i] * _b[_bOffset + i];
+        }
+        return dotProduct;
+    }
+
+    public static double squaredNorm(double[] _a) {
+        double norm = 0;
+        for (double value : _a) {
+            norm += value * value;
+        }
+        return norm;
+    }
+
+    // Dot product and both norms in one pass, instead of Vector's second dot-product loop and Math.pow calls
+    public static double cosineSimilarity(double[] _a, double[] _b) {
+        int common = Math.min(_a.length, _b.length);
+        double dotProduct = 0, normA = 0, normB = 0;
+        for (int i = 0; i < common; i++) {
+            double a = _a[i];
+            double b = _b[i];
+            dotProduct += a * b;
+            normA += a * a;
+            normB += b * b;
+        }
+        for (int j = common; j < _a.length; j++) {
+            dotProduct -= _a[j];
+            normA += _a[j] * _a[j];
+            normB += 1;
+        }
+        for (int j = common; j < _b.length; j++) {
+            dotProduct -= _b[j];
+            normB += _b[j] * _b[j];
+            normA += 1;
+        }
+        return dotProduct / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
+    // _destination = _a + _b; _destination must be as long as the longer operand and may alias either one
+    public static void add(double[] _a, double[] _b, double[] _destination) {
+        combine(_a, _b, 1, _destination);
+    }
+
+    // _destination = _a - _b, with the same padding and aliasing rules as add
+    public static void subtraction(double[] _a, double[] _b, double[] _destination) {
+        combine(_a, _b, -1, _destination);
+    }
+
+    private static void combine(double[] _a, double[] _b, double _sign, double[] _destination) {
+        int length = Math.max(_a.length, _b.length);
+        if (_destination.length != length) {
+            throw new IllegalArgumentException("Destination length " + _destination.length + " != " + length);
+        }
+        int common = Math.min(_a.length, _b.length);
+        for (int i = 0; i < common; i++) {
+            _destination[i] = _a[i] + _sign * _b[i];
+        }
+        for (int i = common; i < _a.length; i++) {
+            _destination[i] = _a[i] - _sign;
+        }
+        for (int i = common; i < _b.length; i++) {
+            _destination[i] = _sign * _b[i] - 1;
+        }
+    }
+
+    // _accumulator += _v
+    public static void addInPlace(double[] _accumulator, double[] _v) {
+        axpy(1, _v, _accumulator);
+    }
+
+    // _accumulator -= _v
+    public static void subtractInPlace(double[] _accumulator, double[] _v) {
+        axpy(-1, _v, _accumulator);
+    }
+
+    // _y += _alpha * _x, e.g. for running sums and centroids; lengths must match
+    public static void axpy(double _alpha, double[] _x, double[] _y) {
+        checkSameLength(_x, _y);
+        for (int i = 0; i < _y.length; i++) {
+            _y[i] += _alpha * _x[i];
+        }
+    }
+
+    public static void scaleInPlace(double[] _v, double _factor) {
+        for (int i = 0; i < _v.length; i++) {
+            _v[i] *= _factor;
+        }
+    }
+
+    private static void checkSameLength(double[] _a, double[] _b) {
+        if (_a.length != _b.length) {
+            throw new IllegalArgumentException("Vector lengths differ: " + _a.length + " != " + _b.length);
+        }
+    }
+}
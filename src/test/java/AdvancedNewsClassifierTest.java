@@ -1,9 +1,14 @@
 import org.apache.commons.lang3.time.StopWatch;
 import org.junit.jupiter.api.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -16,9 +21,38 @@ public class AdvancedNewsClassifierTest {
     private final PrintStream originalErr = System.err;
 
     @Test
-    void createGloveMap() throws IOException {
+    void createEmbeddingTable() throws IOException {
         AdvancedNewsClassifier classifier = new AdvancedNewsClassifier();
-        assertEquals(38515, AdvancedNewsClassifier.getGloveMap().size());
+        assertEquals(38515, classifier.getEmbeddingTable().size());
+        assertEquals(50, classifier.getEmbeddingTable().getDimension());
+        assertEquals(EmbeddingTable.NOT_FOUND, classifier.getWordIndex("the"));
+        int row = classifier.getWordIndex("Abacus");
+        assertEquals("abacus", classifier.getEmbeddingTable().getWord(row));
+        assertEquals(classifier.getGloveByWord("abacus").getVector().getElementatIndex(0),
+                classifier.getEmbeddingTable().getElement(row, 0), 0);
+    }
+
+    @Test
+    void nearestWords() throws IOException {
+        AdvancedNewsClassifier classifier = new AdvancedNewsClassifier();
+        List<String> neighbours = classifier.nearestWords("Market", 5);
+        assertEquals(5, neighbours.size());
+        assertFalse(neighbours.contains("market"));
+        for (String word : neighbours) {
+            assertNotEquals(EmbeddingTable.NOT_FOUND, classifier.getWordIndex(word));
+        }
+        assertTrue(classifier.nearestWords("notawordinglove", 5).isEmpty());
+    }
+
+    @Test
+    void constructor_LoadsNewsOnFirstUse() throws IOException {
+        Metrics.Timer parse = Metrics.getGlobal().timer("html_parse", "Field extraction per HTML article");
+        long before = parse.getCount();
+        AdvancedNewsClassifier classifier = new AdvancedNewsClassifier();
+        assertEquals(before, parse.getCount()); // predict-only and serving classifiers never parse the bundled corpus
+        List<ArticlesEmbedding> articles = classifier.getArticleEmbeddings();
+        assertEquals(before + articles.size(), parse.getCount());
+        assertSame(articles, classifier.getArticleEmbeddings());
     }
 
     @Test
@@ -33,6 +67,15 @@ public class AdvancedNewsClassifierTest {
                   "Embedding size should be in reasonable range for news articles, got: " + embeddingSize);
     }
 
+    @Test
+    void preprocessArticles_EstimatesEmbeddingSize() throws Exception {
+        AdvancedNewsClassifier classifier = new AdvancedNewsClassifier();
+        classifier.preprocessArticles(4);
+        EmbeddingSizeEstimator estimator = classifier.getEmbeddingSizeEstimator();
+        assertEquals(classifier.getArticleEmbeddings().size(), estimator.getCount());
+        assertEquals(classifier.calculateEmbeddingSize(classifier.getArticleEmbeddings()), estimator.getEmbeddingSize());
+    }
+
     @Test
     void populateEmbedding_Functional() throws Exception {
         AdvancedNewsClassifier classifier = new AdvancedNewsClassifier();
@@ -48,6 +91,43 @@ public class AdvancedNewsClassifierTest {
         assertTrue(embeddingValid);
     }
 
+    @Test
+    void populateEmbedding_FillsFeatureMatrix() throws Exception {
+        AdvancedNewsClassifier classifier = new AdvancedNewsClassifier();
+        classifier.embeddingSize = classifier.calculateEmbeddingSize(classifier.getArticleEmbeddings());
+        classifier.populateEmbedding();
+        INDArray features = classifier.getFeatureMatrix();
+        assertEquals(classifier.getArticleEmbeddings().size(), features.rows());
+        assertEquals(classifier.embeddingSize, features.columns());
+        for (int i = 0; i < features.rows(); i++) {
+            assertEquals(features.getRow(i, true), classifier.getArticleEmbeddings().get(i).getEmbedding());
+        }
+        classifier.populateEmbedding();
+        assertSame(features, classifier.getFeatureMatrix());
+    }
+
+    @Test
+    void populateEmbedding_FixedWidthPooling() throws Exception {
+        AdvancedNewsClassifier classifier = new AdvancedNewsClassifier(ClassifierContext.getDefault().withPoolingStrategy(PoolingStrategy.forName("tfidf")));
+        classifier.preprocessArticles(2);
+        classifier.fitPoolingStrategy();
+        assertNotEquals("tfidf", classifier.getContext().getPoolingStrategy().getSignature()); // fitted weights
+        assertEquals(PoolingStrategy.PER_WORD_MEAN, ClassifierContext.getDefault().getPoolingStrategy());
+        classifier.embeddingSize = classifier.selectEmbeddingSize();
+        assertEquals(classifier.getEmbeddingTable().getDimension(), classifier.embeddingSize);
+
+        long start = System.nanoTime();
+        classifier.populateEmbedding();
+        double millis = (System.nanoTime() - start) / 1e6;
+        for (ArticlesEmbedding article : classifier.getArticleEmbeddings()) {
+            assertEquals(classifier.embeddingSize, article.getEmbedding().length());
+        }
+        classifier.setNeuralNetwork(classifier.buildNeuralNetwork(2));
+        long testing = classifier.getArticleEmbeddings().stream().filter(article -> article.getNewsType() == NewsArticles.DataType.Testing).count();
+        assertEquals(testing, classifier.predictResult(classifier.getArticleEmbeddings()).size());
+        System.out.printf("[BENCHMARK] TF-IDF Pooling: %.1fms for %d documents%n", millis, classifier.getArticleEmbeddings().size());
+    }
+
     @Test
     void populateEmbedding_Performance() throws Exception {
         AdvancedNewsClassifier classifier = new AdvancedNewsClassifier();
@@ -94,6 +174,166 @@ public class AdvancedNewsClassifierTest {
         assertTrue(uniquePredictions > 0, "Should generate at least some predictions");
     }
 
+    @Test
+    void predictResult_BatchSizeDoesNotChangeResults() throws Exception {
+        AdvancedNewsClassifier classifier = new AdvancedNewsClassifier();
+        classifier.embeddingSize = classifier.calculateEmbeddingSize(classifier.getArticleEmbeddings());
+        classifier.populateEmbedding();
+        classifier.setNeuralNetwork(classifier.buildNeuralNetwork(2));
+
+        List<Integer> single = classifier.predictResult(classifier.getArticleEmbeddings(), 1);
+        assertEquals(single, classifier.predictResult(classifier.getArticleEmbeddings(), 5));
+        assertEquals(single, classifier.predictResult(classifier.getArticleEmbeddings(), 1000));
+    }
+
+    @Test
+    void buildNeuralNetwork_Parallel() throws Exception {
+        AdvancedNewsClassifier classifier = new AdvancedNewsClassifier();
+        classifier.embeddingSize = classifier.calculateEmbeddingSize(classifier.getArticleEmbeddings());
+        classifier.populateEmbedding();
+        assertEquals(classifier.populateTrainingSet(2).size(), countTrainingArticles(classifier));
+
+        ParallelTrainer trainer = new ParallelTrainer().setWorkers(2).setMaxEpochs(20).setValidationFraction(0);
+        classifier.setNeuralNetwork(classifier.buildNeuralNetwork(2, trainer));
+        assertEquals(20, trainer.getEpochStats().size());
+        List<Integer> results = classifier.predictResult(classifier.getArticleEmbeddings());
+        assertTrue(results.stream().allMatch(r -> r == 0 || r == 1));
+    }
+
+    private int countTrainingArticles(AdvancedNewsClassifier _classifier) {
+        int count = 0;
+        for (ArticlesEmbedding article : _classifier.getArticleEmbeddings()) {
+            count += article.getNewsType() == NewsArticles.DataType.Training ? 1 : 0;
+        }
+        return count;
+    }
+
+    @Test
+    void predictStream() throws Exception {
+        AdvancedNewsClassifier classifier = new AdvancedNewsClassifier();
+        classifier.embeddingSize = classifier.calculateEmbeddingSize(classifier.getArticleEmbeddings());
+        classifier.populateEmbedding();
+        classifier.setNeuralNetwork(classifier.buildNeuralNetwork(2));
+
+        List<ArticlesEmbedding> streamed = new ArrayList<>();
+        try (NewsStream stream = new Toolkit().streamNews(2)) {
+            int count = classifier.predictStream(stream, streamed::add);
+            assertEquals(32, count);
+        }
+        assertEquals(32, streamed.size());
+        assertTrue(streamed.stream().allMatch(a -> a.getNewsLabel().equals("0") || a.getNewsLabel().equals("1")),
+                "Every streamed article should receive a predicted label");
+    }
+
+    @Test
+    void setContext_RecomputesEmbeddingsForNewPooling() throws Exception {
+        ClassifierContext mean = ClassifierContext.getDefault().withPoolingStrategy(PoolingStrategy.MEAN_OF_VECTORS);
+        AdvancedNewsClassifier classifier = new AdvancedNewsClassifier(mean);
+        classifier.preprocessArticles(2);
+        classifier.embeddingSize = classifier.selectEmbeddingSize();
+        classifier.populateEmbedding();
+        INDArray meanRow = classifier.getFeatureMatrix().getRow(0).dup();
+        String processed = classifier.getArticleEmbeddings().get(0).getNewsContent();
+
+        ClassifierContext max = mean.withPoolingStrategy(PoolingStrategy.MAX);
+        classifier.setContext(max);
+        assertNull(classifier.getFeatureMatrix());
+        for (ArticlesEmbedding article : classifier.getArticleEmbeddings()) {
+            assertFalse(article.hasEmbedding());
+        }
+        classifier.populateEmbedding();
+        ArticlesEmbedding first = classifier.getArticleEmbeddings().get(0);
+        assertEquals(processed, first.getNewsContent()); // same stop words: the text is not processed again
+        ArticlesEmbedding fresh = new ArticlesEmbedding(max, first.getNewsTitle(), first.getRawContent(), first.getNewsType(), first.getNewsLabel());
+        fresh.getNewsContent();
+        assertEquals(fresh.getEmbedding().reshape(-1), classifier.getFeatureMatrix().getRow(0));
+        assertNotEquals(meanRow, classifier.getFeatureMatrix().getRow(0));
+
+        classifier.setContext(max.withLemmaCache(new LemmaCache(100))); // embeds the same: rows are kept
+        assertNotNull(classifier.getFeatureMatrix());
+        assertTrue(first.hasEmbedding());
+    }
+
+    @Test
+    void saveAndLoadModel() throws Exception {
+        AdvancedNewsClassifier classifier = new AdvancedNewsClassifier();
+        classifier.embeddingSize = classifier.calculateEmbeddingSize(classifier.getArticleEmbeddings());
+        classifier.populateEmbedding();
+        classifier.setNeuralNetwork(classifier.buildNeuralNetwork(2));
+        List<Integer> trained = classifier.predictResult(classifier.getArticleEmbeddings());
+
+        File bundleFile = File.createTempFile("classifier", ".zip");
+        bundleFile.deleteOnExit();
+        classifier.saveModel(bundleFile, 2);
+
+        AdvancedNewsClassifier serving = new AdvancedNewsClassifier();
+        serving.loadModel(ModelBundle.load(bundleFile));
+        assertEquals(classifier.embeddingSize, serving.embeddingSize);
+        serving.prepareTestingArticles(2);
+        assertEquals(trained, serving.predictResult(serving.getArticleEmbeddings()));
+    }
+
+    @Test
+    void updateModel() throws Exception {
+        AdvancedNewsClassifier classifier = new AdvancedNewsClassifier();
+        classifier.embeddingSize = classifier.calculateEmbeddingSize(classifier.getArticleEmbeddings());
+        classifier.populateEmbedding();
+        classifier.setNeuralNetwork(classifier.buildNeuralNetwork(2));
+        File bundleFile = File.createTempFile("classifier", ".zip");
+        bundleFile.deleteOnExit();
+        ModelBundle bundle = classifier.saveModel(bundleFile, 2);
+
+        // A nightly drop: the labelled articles again, fine-tuned into the saved model at its frozen width
+        AdvancedNewsClassifier updating = new AdvancedNewsClassifier();
+        stopWatch.start();
+        ModelBundle updated = updating.updateModel(ModelBundle.load(bundleFile), new Toolkit().loadNews(), new IncrementalTrainer());
+        stopWatch.stop();
+        assertEquals(bundle.getEmbeddingSize(), updated.getEmbeddingSize());
+        assertEquals(bundle.getEmbeddingSize(), updating.embeddingSize);
+        assertTrue(updated.getReplaySeen() > bundle.getReplaySeen());
+
+        updating.prepareTestingArticles(2);
+        List<Integer> predictions = updating.predictResult(updating.getArticleEmbeddings());
+        assertFalse(predictions.isEmpty());
+        System.out.printf("[BENCHMARK] Model Update: fine-tuned saved model in %d ms%n", stopWatch.getTime());
+    }
+
+    @Test
+    void populateEmbedding_UsesEmbeddingCache() throws Exception {
+        Path cacheDir = Files.createTempDirectory("embedding-cache");
+        AdvancedNewsClassifier classifier = new AdvancedNewsClassifier();
+        classifier.setEmbeddingCache(new EmbeddingCache(cacheDir, AdvancedNewsClassifier.EMBEDDING_CACHE_BYTES));
+        classifier.embeddingSize = classifier.calculateEmbeddingSize(classifier.getArticleEmbeddings());
+        classifier.populateEmbedding();
+
+        AdvancedNewsClassifier rerun = new AdvancedNewsClassifier();
+        EmbeddingCache cache = new EmbeddingCache(cacheDir, AdvancedNewsClassifier.EMBEDDING_CACHE_BYTES);
+        rerun.setEmbeddingCache(cache);
+        rerun.embeddingSize = classifier.embeddingSize;
+        rerun.populateEmbedding();
+
+        assertEquals(classifier.getArticleEmbeddings().size(), cache.getHits());
+        for (int i = 0; i < classifier.getArticleEmbeddings().size(); i++) {
+            assertEquals(classifier.getArticleEmbeddings().get(i).getEmbedding(), rerun.getArticleEmbeddings().get(i).getEmbedding());
+        }
+    }
+
+    @Test
+    void populateEmbedding_CacheSeparatesApproximateLemmas() throws Exception {
+        Path cacheDir = Files.createTempDirectory("embedding-cache");
+        AdvancedNewsClassifier approximate = new AdvancedNewsClassifier(ClassifierContext.getDefault().withLemmaCache(new LemmaCache(10_000, true)));
+        approximate.setEmbeddingCache(new EmbeddingCache(cacheDir, AdvancedNewsClassifier.EMBEDDING_CACHE_BYTES));
+        approximate.embeddingSize = approximate.calculateEmbeddingSize(approximate.getArticleEmbeddings());
+        approximate.populateEmbedding();
+
+        AdvancedNewsClassifier exact = new AdvancedNewsClassifier();
+        EmbeddingCache cache = new EmbeddingCache(cacheDir, AdvancedNewsClassifier.EMBEDDING_CACHE_BYTES);
+        exact.setEmbeddingCache(cache);
+        exact.embeddingSize = approximate.embeddingSize;
+        exact.populateEmbedding();
+        assertEquals(0, cache.getHits());
+    }
+
     @Test
     void printResults() throws Exception {
         System.setOut(new PrintStream(outContent));
@@ -152,7 +392,7 @@ public class AdvancedNewsClassifierTest {
                 String[] words = article.getNewsContent().split("\\s+");
                 totalWords += words.length;
                 for (String word : words) {
-                    if (AdvancedNewsClassifier.getGloveByWord(word) != null) {
+                    if (classifier.getGloveByWord(word) != null) {
                         embeddedWords++;
                     }
                 }
@@ -165,7 +405,7 @@ public class AdvancedNewsClassifierTest {
         List<Integer> predictions = classifier.predictResult(classifier.getArticleEmbeddings());
         
         double vocabularyCoverage = totalWords > 0 ? (double) embeddedWords / totalWords * 100 : 0;
-        int vocabularySize = AdvancedNewsClassifier.getGloveMap().size();
+        int vocabularySize = classifier.getEmbeddingTable().size();
         
         System.out.printf("[BENCHMARK] Training Examples: %d (semantic classification proof-of-concept)%n", trainingArticles);
         System.out.printf("[BENCHMARK] Test Articles: %d (predictions generated)%n", testArticles);
@@ -0,0 +1,51 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArrayEmbeddingTableTest {
+
+    @Test
+    void putAndIndexOf() {
+        ArrayEmbeddingTable table = new ArrayEmbeddingTable(2, 3);
+        assertEquals(0, table.put("hello", new double[]{1, 2, 3}));
+        assertEquals(1, table.put("world", new double[]{4, 5, 6}));
+        assertEquals(2, table.size());
+        assertEquals(0, table.indexOf("hello"));
+        assertEquals(1, table.indexOf(new StringBuilder("world")));
+        assertEquals(EmbeddingTable.NOT_FOUND, table.indexOf("missing"));
+        assertEquals("world", table.getWord(1));
+        assertEquals(5.0, table.getElement(1, 1), 0);
+    }
+
+    @Test
+    void putReplacesExistingWord() {
+        ArrayEmbeddingTable table = new ArrayEmbeddingTable(2, 2);
+        table.put("hello", new double[]{1, 2});
+        assertEquals(0, table.put("hello", new double[]{7, 8}));
+        assertEquals(1, table.size());
+        double[] row = new double[3];
+        table.copyRow(0, row, 1);
+        assertArrayEquals(new double[]{0, 7, 8}, row, 0);
+    }
+
+    @Test
+    void growsBeyondExpectedSize() {
+        ArrayEmbeddingTable table = new ArrayEmbeddingTable(1, 1);
+        for (int i = 0; i < 1000; i++) {
+            table.put("w" + i, new double[]{i});
+        }
+        assertEquals(1000, table.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, table.indexOf("w" + i));
+            assertEquals(i, table.getElement(i, 0), 0);
+        }
+    }
+
+    @Test
+    void rejectsWrongDimension() {
+        ArrayEmbeddingTable table = new ArrayEmbeddingTable(1, 2);
+        assertThrows(IllegalArgumentException.class, () -> table.put("a", new double[]{1}));
+    }
+}
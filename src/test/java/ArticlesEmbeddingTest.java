@@ -1,5 +1,12 @@
 import org.apache.commons.lang3.time.StopWatch;
 import org.junit.jupiter.api.Test;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.Assert.assertThrows;
 import static org.junit.jupiter.api.Assertions.*;
@@ -101,4 +108,108 @@ public class ArticlesEmbeddingTest {
         System.out.printf("[BENCHMARK] Embedding Generation: %dms average per document%n", avgTime);
         assertTrue(avgTime < 8);
     }
+
+    @Test
+    void getEmbedding_ReusesRowAndTarget() throws Exception {
+        new AdvancedNewsClassifier();
+        embedding.setEmbeddingSize(100);
+        embedding.getNewsContent();
+        INDArray row = embedding.getEmbedding();
+        assertSame(row, embedding.getEmbedding());
+
+        INDArray corpus = Nd4j.zeros(DataType.FLOAT, 3, 100);
+        embedding.setEmbeddingTarget(corpus.getRow(1, true));
+        assertEquals(row, corpus.getRow(1, true));
+        assertEquals(0.0, corpus.getRow(0).sumNumber().doubleValue());
+
+        ArticlesEmbedding copy = embedding.copyPreprocessed();
+        copy.setEmbeddingTarget(corpus.getRow(2, true));
+        copy.getEmbedding();
+        assertEquals(row, corpus.getRow(2, true)); // written straight into the preallocated row
+    }
+
+    @Test
+    void getTokens() {
+        String[] tokens = embedding.getTokens();
+        assertArrayEquals(embedding.getNewsContent().split("\\s+"), tokens);
+    }
+
+    @Test
+    void getTokenIds() throws IOException {
+        AdvancedNewsClassifier classifier = new AdvancedNewsClassifier();
+        String[] tokens = embedding.getTokens();
+        int[] ids = embedding.getTokenIds();
+        assertEquals(tokens.length, ids.length);
+        int known = 0;
+        for (int i = 0; i < tokens.length; i++) {
+            assertEquals(classifier.getWordIndex(tokens[i]), ids[i]);
+            known += ids[i] != EmbeddingTable.NOT_FOUND ? 1 : 0;
+        }
+        assertEquals(known, embedding.getKnownWordCount());
+        assertSame(ids, embedding.getTokenIds());
+        assertArrayEquals(tokens, embedding.getTokens()); // rebuilt from processedText once the ids replace them
+    }
+
+    @Test
+    void preprocess_ParallelMatchesSequential() throws Exception {
+        String[] contents = {
+                "The symptoms of COVID-19 are variable but often include fever, cough and headache.",
+                "Sam Altman returned as chief executive of OpenAI after the board ousted him.",
+                "Scientists won the Nobel Prize in medicine for work on mRNA vaccines.",
+                "Up to 200,000 people will be monitored for COVID this winter to track infection rates."
+        };
+        List<ArticlesEmbedding> parallel = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            parallel.add(new ArticlesEmbedding("Title " + i, contents[i % contents.length], NewsArticles.DataType.Testing, "-1"));
+        }
+        ArticlesEmbedding.preprocess(parallel, 4);
+
+        for (int i = 0; i < parallel.size(); i++) {
+            ArticlesEmbedding sequential = new ArticlesEmbedding("Title " + i, contents[i % contents.length], NewsArticles.DataType.Testing, "-1");
+            assertEquals(sequential.getNewsContent(), parallel.get(i).getNewsContent());
+        }
+    }
+
+    @Test
+    void lemmaCache_MatchesFullPipeline() throws IOException {
+        String expected = embedding.getNewsContent();
+        LemmaCache cache = new LemmaCache(10_000);
+        ClassifierContext context = ClassifierContext.getDefault().withLemmaCache(cache);
+        ArticlesEmbedding cold = new ArticlesEmbedding(context, "a", embedding.getRawContent(), NewsArticles.DataType.Testing, "-1");
+        assertEquals(expected, cold.getNewsContent()); // misses tag the tokenized document, same as the full pipeline
+        assertEquals(0, cache.getHits()); // nothing cached was used
+
+        long start = System.nanoTime();
+        ArticlesEmbedding warm = new ArticlesEmbedding(context, "b", embedding.getRawContent(), NewsArticles.DataType.Testing, "-1");
+        assertEquals(expected, warm.getNewsContent());
+        double millis = (System.nanoTime() - start) / 1e6;
+
+        assertEquals(0.5, cache.getFastPathRate(), 1e-9);
+        assertEquals(1.0, ArticlesEmbedding.lemmaAgreement(List.of(TextNormalizer.clean(embedding.getRawContent())), cache), 1e-9);
+        System.out.printf("[BENCHMARK] Lemma Cache: warm document in %.2fms, %s%n", millis, cache);
+    }
+
+    @Test
+    void lemmaCache_ApproximateNeverTags() throws IOException {
+        String text = TextNormalizer.clean(embedding.getRawContent());
+        LemmaCache cache = new LemmaCache(10_000, true);
+        ClassifierContext context = ClassifierContext.getDefault().withLemmaCache(cache);
+
+        long start = System.nanoTime();
+        ArticlesEmbedding cold = new ArticlesEmbedding(context, "a", embedding.getRawContent(), NewsArticles.DataType.Testing, "-1");
+        String approximate = cold.getNewsContent();
+        double millis = (System.nanoTime() - start) / 1e6;
+        assertEquals(0, cache.getHits());
+        assertTrue(cache.getMisses() > 0);
+        assertEquals(1.0, cache.getFastPathRate(), 1e-9); // stemmed, not tagged
+
+        ArticlesEmbedding warm = new ArticlesEmbedding(context, "b", embedding.getRawContent(), NewsArticles.DataType.Testing, "-1");
+        assertEquals(approximate, warm.getNewsContent());
+        assertEquals(cache.getMisses(), cache.getHits());
+
+        double agreement = ArticlesEmbedding.lemmaAgreement(List.of(text), cache);
+        assertTrue(agreement > 0.9, "agreement " + agreement);
+        System.out.printf("[BENCHMARK] Approximate Lemma Cache: cold document in %.2fms, %.1f%% agree with the full pipeline, %s%n",
+                millis, agreement * 100, cache);
+    }
 }
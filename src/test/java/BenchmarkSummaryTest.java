@@ -25,7 +25,7 @@ public class BenchmarkSummaryTest {
         // Core performance metrics
         System.out.println("\nCORE PERFORMANCE METRICS");
         
-        int vocabularySize = Toolkit.getListVocabulary().size();
+        int vocabularySize = classifier.getEmbeddingTable().size();
         System.out.printf("GloVe Vocabulary Size: %,d terms%n", vocabularySize);
         
         int totalArticles = classifier.getArticleEmbeddings().size();
@@ -90,7 +90,7 @@ public class BenchmarkSummaryTest {
             String[] words = content.split("\\s+");
             totalWordsProcessed += words.length;
             for (String word : words) {
-                if (AdvancedNewsClassifier.getGloveByWord(word) != null) {
+                if (classifier.getGloveByWord(word) != null) {
                     vocabularyCoverage++;
                 }
             }
@@ -0,0 +1,75 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BruteForceIndexTest {
+    private static final int DIMENSION = 16;
+
+    static double[] randomRows(int _rows, int _dimension, long _seed) {
+        Random random = new Random(_seed);
+        double[] rows = new double[_rows * _dimension];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = random.nextGaussian();
+        }
+        return rows;
+    }
+
+    private static double[] row(double[] _rows, int _row) {
+        double[] vector = new double[DIMENSION];
+        System.arraycopy(_rows, _row * DIMENSION, vector, 0, DIMENSION);
+        return vector;
+    }
+
+    @Test
+    void search_MatchesVectorCosineScan() {
+        double[] rows = randomRows(2000, DIMENSION, 1);
+        BruteForceIndex index = new BruteForceIndex(rows, DIMENSION);
+        double[] query = randomRows(1, DIMENSION, 2);
+
+        TopK expected = new TopK(10);
+        Vector queryVector = new Vector(query);
+        for (int i = 0; i < 2000; i++) {
+            expected.offer(i, queryVector.cosineSimilarity(new Vector(row(rows, i))));
+        }
+        TopK actual = index.search(query, 10);
+        assertArrayEquals(expected.getIds(), actual.getIds());
+        assertArrayEquals(expected.getScores(), actual.getScores(), 1e-12);
+    }
+
+    @Test
+    void search_BatchMatchesSingleQueries() {
+        double[] rows = randomRows(BruteForceIndex.BLOCK_ROWS * 3 + 17, DIMENSION, 3);
+        BruteForceIndex index = new BruteForceIndex(rows, DIMENSION);
+        double[][] queries = {row(rows, 5), row(rows, 900), randomRows(1, DIMENSION, 4)};
+        TopK[] batch = index.search(queries, 5, null);
+        for (int q = 0; q < queries.length; q++) {
+            assertArrayEquals(index.search(queries[q], 5).getIds(), batch[q].getIds());
+        }
+        assertEquals(5, batch[0].getIds()[0]); // a row is its own nearest neighbour
+    }
+
+    @Test
+    void search_Exclude() {
+        double[] rows = randomRows(100, DIMENSION, 5);
+        BruteForceIndex index = new BruteForceIndex(rows, DIMENSION);
+        int[] ids = index.search(row(rows, 42), 3, id -> id == 42).getIds();
+        assertEquals(3, ids.length);
+        for (int id : ids) {
+            assertEquals(false, id == 42);
+        }
+    }
+
+    @Test
+    void fromTable() {
+        ArrayEmbeddingTable table = new ArrayEmbeddingTable(3, 2);
+        table.put("north", new double[]{0, 1});
+        table.put("east", new double[]{1, 0});
+        table.put("northeast", new double[]{1, 1});
+        BruteForceIndex index = BruteForceIndex.fromTable(table);
+        assertEquals(3, index.size());
+        assertArrayEquals(new int[]{0, 2, 1}, index.search(new double[]{0, 5}, 3).getIds());
+    }
+}
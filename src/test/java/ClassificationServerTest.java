@@ -0,0 +1,147 @@
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClassificationServerTest {
+    private static AdvancedNewsClassifier classifier;
+    private ClassificationServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        if (classifier == null) {
+            classifier = new AdvancedNewsClassifier(); // provides the context the request threads embed with
+        }
+        // Stub model: every article is class 1
+        MicroBatcher batcher = new MicroBatcher(batch -> {
+            int[] result = new int[batch.size()];
+            Arrays.fill(result, 1);
+            return result;
+        }, 16, 5);
+        server = new ClassificationServer(classifier.getContext(), batcher, 50, new String[]{"1", "2"}, new InetSocketAddress("127.0.0.1", 0), 4);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    private static final class Response {
+        final int status;
+        final String body;
+
+        Response(int _status, String _body) {
+            status = _status;
+            body = _body;
+        }
+
+        JsonObject json() {
+            return new JsonParser().parse(body).getAsJsonObject();
+        }
+    }
+
+    private Response request(String _method, String _path, String _contentType, String _body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + _path).openConnection();
+        connection.setRequestMethod(_method);
+        if (_body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", _contentType);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(_body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            return new Response(status, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void classifiesSingleJsonArticle() throws IOException {
+        Response response = request("POST", "/classify", "application/json",
+                "{\"title\": \"Markets\", \"content\": \"Stocks rallied as the central bank held interest rates steady.\"}");
+        assertEquals(200, response.status);
+        JsonObject result = response.json();
+        assertEquals("Markets", result.get("title").getAsString());
+        assertEquals("2", result.get("label").getAsString());
+        assertEquals(1, result.get("classIndex").getAsInt());
+    }
+
+    @Test
+    void classifiesBulkAndHtml() throws IOException {
+        Response bulk = request("POST", "/classify", "application/json",
+                "[{\"title\": \"a\", \"content\": \"The team won the match\"}, "
+                        + "{\"html\": \"<title>b</title>\\\"articleBody\\\": \\\"Rain is expected tomorrow \\\",\\\"mainEntityOfPage\\\":\"}]");
+        assertEquals(200, bulk.status);
+        assertEquals(2, bulk.json().getAsJsonArray("results").size());
+        assertEquals("b", bulk.json().getAsJsonArray("results").get(1).getAsJsonObject().get("title").getAsString());
+
+        Response html = request("POST", "/classify", "text/html",
+                "<html><title>Page</title><script>{\"articleBody\": \"Scientists discovered a new species of frog \",\"mainEntityOfPage\": {}}</script></html>");
+        assertEquals(200, html.status);
+        assertEquals("Page", html.json().get("title").getAsString());
+    }
+
+    @Test
+    void rejectsBadRequests() throws IOException {
+        assertEquals(400, request("POST", "/classify", "application/json", "{not json").status);
+        assertEquals(400, request("POST", "/classify", "application/json", "{\"title\": \"no content\"}").status);
+        assertEquals(400, request("POST", "/classify", "application/json", "[]").status);
+        assertEquals(400, request("POST", "/classify", "text/html", "<html><title>No body</title></html>").status);
+        assertEquals(405, request("GET", "/classify", null, null).status);
+    }
+
+    @Test
+    void rejectsOversizedBody() throws IOException {
+        server.setMaxBodyBytes(1024);
+        String article = "{\"content\": \"Parliament passed the budget\"}";
+        assertEquals(200, request("POST", "/classify", "application/json", article).status);
+        String padded = "{\"content\": \"" + "budget ".repeat(200) + "\"}";
+        Response response = request("POST", "/classify", "application/json", padded);
+        assertEquals(413, response.status);
+        assertTrue(response.json().get("error").getAsString().contains("1024"));
+        assertEquals(1, request("GET", "/stats", null, null).json().get("errors").getAsLong());
+    }
+
+    @Test
+    void statsReportLatencyAndThroughput() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            request("POST", "/classify", "application/json", "{\"content\": \"Parliament passed the budget\"}");
+        }
+        JsonObject stats = request("GET", "/stats", null, null).json();
+        assertEquals(5, stats.get("requests").getAsLong());
+        assertEquals(5, stats.get("articles").getAsLong());
+        assertTrue(stats.get("batches").getAsLong() >= 1);
+        assertTrue(stats.get("latencyP99Millis").getAsDouble() >= stats.get("latencyP50Millis").getAsDouble());
+        assertTrue(stats.get("articlesPerSecond").getAsDouble() > 0);
+        System.out.printf("[BENCHMARK] Classification Server: p50 %.2f ms, p99 %.2f ms%n",
+                stats.get("latencyP50Millis").getAsDouble(), stats.get("latencyP99Millis").getAsDouble());
+    }
+
+    @Test
+    void metricsExposePipelineStages() throws IOException {
+        request("POST", "/classify", "text/html",
+                "<html><title>Page</title><script>{\"articleBody\": \"Scientists discovered a new species of frog \",\"mainEntityOfPage\": {}}</script></html>");
+        Response text = request("GET", "/metrics", null, null);
+        assertEquals(200, text.status);
+        assertTrue(text.body.contains("newsclassifier_html_parse_seconds_count"));
+        assertTrue(text.body.contains("newsclassifier_corenlp_annotate_seconds_count"));
+
+        JsonObject json = request("GET", "/metrics?format=json", null, null).json();
+        assertTrue(json.getAsJsonObject("timers").getAsJsonObject("html_parse").get("count").getAsLong() >= 1);
+        assertEquals(405, request("POST", "/metrics", "text/plain", "").status);
+    }
+}
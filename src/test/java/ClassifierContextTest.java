@@ -0,0 +1,98 @@
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClassifierContextTest {
+
+    @Test
+    void withPoolingStrategy_SharesVocabulary() throws IOException {
+        ClassifierContext base = ClassifierContext.getDefault();
+        assertSame(base, ClassifierContext.getDefault()); // loaded once per JVM
+        ClassifierContext mean = base.withPoolingStrategy(PoolingStrategy.MEAN_OF_VECTORS);
+        assertNotSame(base, mean);
+        assertEquals(PoolingStrategy.PER_WORD_MEAN, base.getPoolingStrategy());
+        assertEquals(PoolingStrategy.MEAN_OF_VECTORS, mean.getPoolingStrategy());
+        assertSame(base.getEmbeddingTable(), mean.getEmbeddingTable());
+        assertEquals(base.getVocabularyFingerprint(), mean.getVocabularyFingerprint());
+        assertTrue(mean.sharesVocabulary(base));
+
+        LemmaCache cache = new LemmaCache(100);
+        assertSame(cache, mean.withLemmaCache(cache).getLemmaCache());
+        assertNull(mean.getLemmaCache());
+    }
+
+    @Test
+    void create_CustomStopWords() throws IOException {
+        Toolkit toolkit = new Toolkit();
+        toolkit.loadGlove();
+        ClassifierContext custom = ClassifierContext.create(toolkit, new StopWordFilter(new String[]{"market"}));
+        ClassifierContext standard = ClassifierContext.getDefault();
+        assertEquals(EmbeddingTable.NOT_FOUND, custom.getWordIndex("Market"));
+        assertNotEquals(EmbeddingTable.NOT_FOUND, custom.getWordIndex("the"));
+        assertNotEquals(EmbeddingTable.NOT_FOUND, standard.getWordIndex("market"));
+        assertEquals(EmbeddingTable.NOT_FOUND, standard.getWordIndex("the"));
+        assertFalse(custom.sharesVocabulary(standard));
+        assertNotEquals(standard.getVocabularyFingerprint(), custom.getVocabularyFingerprint());
+
+        ArticlesEmbedding article = new ArticlesEmbedding(custom, "t", "The market rallied.", NewsArticles.DataType.Testing, "-1");
+        assertEquals("the rally", article.getNewsContent());
+    }
+
+    @Test
+    void concurrentClassifiers_MatchSequential() throws Exception {
+        ClassifierContext[] contexts = {
+                ClassifierContext.getDefault(),
+                ClassifierContext.getDefault().withPoolingStrategy(PoolingStrategy.forName("tfidf"))
+        };
+        MultiLayerNetwork[] networks = new MultiLayerNetwork[contexts.length];
+        List<List<Integer>> expected = new ArrayList<>();
+        for (int i = 0; i < contexts.length; i++) {
+            AdvancedNewsClassifier classifier = prepare(contexts[i], null);
+            networks[i] = classifier.buildNeuralNetwork(2);
+            classifier.setNeuralNetwork(networks[i]);
+            expected.add(classifier.predictResult(classifier.getArticleEmbeddings()));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(contexts.length);
+        try {
+            long start = System.nanoTime();
+            List<Future<List<Integer>>> futures = new ArrayList<>();
+            for (int i = 0; i < contexts.length; i++) {
+                ClassifierContext context = contexts[i];
+                MultiLayerNetwork network = networks[i];
+                futures.add(executor.submit(() -> {
+                    AdvancedNewsClassifier classifier = prepare(context, network);
+                    return classifier.predictResult(classifier.getArticleEmbeddings());
+                }));
+            }
+            for (int i = 0; i < contexts.length; i++) {
+                assertEquals(expected.get(i), futures.get(i).get());
+            }
+            double millis = (System.nanoTime() - start) / 1e6;
+            System.out.printf("[BENCHMARK] Concurrent Classifiers: %d contexts preprocessed and predicted in %.1fms%n", contexts.length, millis);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(PoolingStrategy.PER_WORD_MEAN, ClassifierContext.getDefault().getPoolingStrategy());
+    }
+
+    private static AdvancedNewsClassifier prepare(ClassifierContext _context, MultiLayerNetwork _network) throws Exception {
+        AdvancedNewsClassifier classifier = new AdvancedNewsClassifier(_context);
+        classifier.preprocessArticles(2);
+        classifier.fitPoolingStrategy();
+        classifier.embeddingSize = classifier.selectEmbeddingSize();
+        classifier.populateEmbedding();
+        if (_network != null) {
+            classifier.setNeuralNetwork(_network);
+        }
+        return classifier;
+    }
+}
@@ -0,0 +1,59 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EmbeddingCacheTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void putAndGet() throws IOException {
+        EmbeddingCache cache = new EmbeddingCache(tempDir, 1024 * 1024);
+        String key = EmbeddingCache.key("some article", 100, "vocab");
+        assertNull(cache.get(key));
+        cache.put(key, new float[]{1.5f, -2f, 3f});
+        assertArrayEquals(new float[]{1.5f, -2f, 3f}, cache.get(key), 0);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void survivesRestart() throws IOException {
+        String key = EmbeddingCache.key("some article", 100, "vocab");
+        new EmbeddingCache(tempDir, 1024 * 1024).put(key, new float[]{4f, 5f});
+        EmbeddingCache reopened = new EmbeddingCache(tempDir, 1024 * 1024);
+        assertEquals(1, reopened.size());
+        assertArrayEquals(new float[]{4f, 5f}, reopened.get(key), 0);
+    }
+
+    @Test
+    void keyDependsOnSizeAndVocabulary() {
+        String key = EmbeddingCache.key("some article", 100, "vocab");
+        assertEquals(key, EmbeddingCache.key("some article", 100, "vocab"));
+        assertNotEquals(key, EmbeddingCache.key("some article", 101, "vocab"));
+        assertNotEquals(key, EmbeddingCache.key("some article", 100, "other"));
+        assertNotEquals(key, EmbeddingCache.key("another article", 100, "vocab"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() throws IOException {
+        // each entry is 4 + 4 * 4 = 20 bytes, so only two fit
+        EmbeddingCache cache = new EmbeddingCache(tempDir, 45);
+        cache.put("a", new float[4]);
+        cache.put("b", new float[4]);
+        cache.get("a");
+        cache.put("c", new float[4]);
+        assertEquals(2, cache.size());
+        assertEquals(40, cache.getTotalBytes());
+        assertNull(cache.get("b"));
+        assertArrayEquals(new float[4], cache.get("a"), 0);
+        assertArrayEquals(new float[4], cache.get("c"), 0);
+    }
+}
@@ -0,0 +1,65 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmbeddingSizeEstimatorTest {
+
+    // The sort-based median calculateEmbeddingSize used before the estimator
+    private static int sortedMedian(int[] _counts) {
+        int[] sorted = _counts.clone();
+        Arrays.sort(sorted);
+        int n = sorted.length;
+        if (n % 2 == 0) {
+            return (sorted[n / 2] + sorted[(n / 2) + 1]) / 2;
+        }
+        return sorted[(n + 1) / 2];
+    }
+
+    @Test
+    void matchesSortedMedian() {
+        Random random = new Random(42);
+        for (int n = 3; n < 200; n++) {
+            int[] counts = new int[n];
+            EmbeddingSizeEstimator estimator = new EmbeddingSizeEstimator();
+            for (int i = 0; i < n; i++) {
+                counts[i] = random.nextInt(n < 100 ? 40 : 1000);
+                estimator.add(counts[i]);
+            }
+            assertEquals(sortedMedian(counts), estimator.getEmbeddingSize(), "n = " + n);
+        }
+    }
+
+    @Test
+    void mergeEqualsSinglePass() {
+        Random random = new Random(7);
+        EmbeddingSizeEstimator all = new EmbeddingSizeEstimator();
+        EmbeddingSizeEstimator left = new EmbeddingSizeEstimator();
+        EmbeddingSizeEstimator right = new EmbeddingSizeEstimator();
+        for (int i = 0; i < 501; i++) {
+            int count = random.nextInt(i % 2 == 0 ? 50 : 600);
+            all.add(count);
+            (i % 3 == 0 ? left : right).add(count);
+        }
+        left.merge(right);
+        assertEquals(all.getCount(), left.getCount());
+        assertEquals(all.getEmbeddingSize(), left.getEmbeddingSize());
+        assertArrayEquals(all.getCounts(), left.getCounts());
+        assertEquals(all.getEmbeddingSize(), EmbeddingSizeEstimator.fromCounts(all.getCounts()).getEmbeddingSize());
+    }
+
+    @Test
+    void smallAndEmpty() {
+        EmbeddingSizeEstimator estimator = new EmbeddingSizeEstimator();
+        assertEquals(-1, estimator.getEmbeddingSize());
+        estimator.add(7);
+        assertEquals(7, estimator.getEmbeddingSize());
+        estimator.add(9);
+        assertEquals(9, estimator.getEmbeddingSize()); // (s[1] + s[2 -> clamped to 1]) / 2
+        assertThrows(IllegalArgumentException.class, () -> estimator.add(-1));
+    }
+}
@@ -0,0 +1,52 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GloveStoreTest {
+    @TempDir
+    Path tempDir;
+
+    private GloveStore createStore() throws IOException {
+        Path csv = tempDir.resolve("glove.csv");
+        Files.writeString(csv, "abacus,0.5,-1.25,2\nzymogen,-0.34302,0.13492,1\nhello,1,2,3\n");
+        Path binary = tempDir.resolve("glove.bin");
+        GloveStore.convert(csv, binary);
+        return GloveStore.open(binary);
+    }
+
+    @Test
+    void convertAndOpen() throws IOException {
+        GloveStore store = createStore();
+        assertEquals(3, store.size());
+        assertEquals(3, store.getDimension());
+        assertEquals("abacus", store.getWord(0));
+        assertEquals("hello", store.getWord(2));
+        assertEquals(-1.25f, store.getElement(0, 1), 0);
+        assertEquals(-0.34302f, store.getElement(1, 0), 0);
+    }
+
+    @Test
+    void indexOf() throws IOException {
+        GloveStore store = createStore();
+        assertEquals(0, store.indexOf("abacus"));
+        assertEquals(1, store.indexOf("zymogen"));
+        assertEquals(2, store.indexOf("hello"));
+        assertEquals(-1, store.indexOf("missing"));
+        assertEquals(-1, store.indexOf(""));
+    }
+
+    @Test
+    void listViewsMatchToolkitFormat() throws IOException {
+        GloveStore store = createStore();
+        assertEquals(3, store.asVocabularyList().size());
+        assertEquals("zymogen", store.asVocabularyList().get(1));
+        double[] vector = store.asVectorList().get(2);
+        assertEquals(3, vector.length);
+        assertEquals(2.0, vector[1], 0);
+    }
+}
@@ -0,0 +1,96 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HtmlExtractorTest {
+    private final String html = "<title>Some headline | News</title><datatype>Training</datatype>"
+            + "\"articleBody\": \"Café Prices RISE \",\"mainEntityOfPage\": {}<label> 2 </label>";
+
+    @TempDir
+    Path tempDir;
+
+    private void assertSameArticle(NewsArticles _expected, NewsArticles _actual) {
+        assertEquals(_expected.getNewsTitle(), _actual.getNewsTitle());
+        assertEquals(_expected.getNewsContent(), _actual.getNewsContent());
+        assertEquals(_expected.getNewsType(), _actual.getNewsType());
+        assertEquals(_expected.getNewsLabel(), _actual.getNewsLabel());
+    }
+
+    private NewsArticles parseWithHtmlParser(String _html) {
+        return new NewsArticles(HtmlParser.getNewsTitle(_html), HtmlParser.getNewsContent(_html),
+                HtmlParser.getDataType(_html), HtmlParser.getLabel(_html));
+    }
+
+    @Test
+    void extract() {
+        NewsArticles article = HtmlExtractor.extract(html);
+        assertEquals("Some headline", article.getNewsTitle());
+        assertEquals("café prices rise", article.getNewsContent());
+        assertEquals(NewsArticles.DataType.Training, article.getNewsType());
+        assertEquals("2", article.getNewsLabel());
+    }
+
+    @Test
+    void extract_MissingTags() {
+        NewsArticles article = HtmlExtractor.extract("<label></label><datatype>unknown</datatype>");
+        assertEquals("Title not found!", article.getNewsTitle());
+        assertEquals("Content not found!", article.getNewsContent());
+        assertEquals(NewsArticles.DataType.Testing, article.getNewsType());
+        assertEquals("-1", article.getNewsLabel());
+    }
+
+    @Test
+    void extract_ByteBufferRespectsPosition() {
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 8);
+        buffer.put("</label>".getBytes(StandardCharsets.US_ASCII)).put(bytes).flip();
+        buffer.position(8);
+        assertSameArticle(HtmlExtractor.extract(html), HtmlExtractor.extract(buffer));
+        assertEquals(8, buffer.position());
+    }
+
+    @Test
+    void extract_LargeFileIsMapped() throws IOException {
+        // Pushes the closing content tag past the mapping threshold
+        String large = html.replace("Café Prices RISE", "Café ".repeat(20000) + "end");
+        Path file = tempDir.resolve("large.htm");
+        Files.writeString(file, large);
+        assertSameArticle(parseWithHtmlParser(large), HtmlExtractor.extract(file));
+    }
+
+    @Test
+    void extract_MatchesHtmlParserOnNewsResources() throws Exception {
+        URL newsUrl = HtmlExtractorTest.class.getClassLoader().getResource("News");
+        int count = 0;
+        long parserNanos = 0;
+        long extractorNanos = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(newsUrl.toURI()))) {
+            for (Path file : files) {
+                if (!Toolkit.isNewsFile(file)) {
+                    continue;
+                }
+                long start = System.nanoTime();
+                NewsArticles expected = parseWithHtmlParser(new String(Files.readAllBytes(file)));
+                parserNanos += System.nanoTime() - start;
+                start = System.nanoTime();
+                NewsArticles actual = HtmlExtractor.extract(file);
+                extractorNanos += System.nanoTime() - start;
+                assertSameArticle(expected, actual);
+                count++;
+            }
+        }
+        assertEquals(32, count);
+        System.out.printf("[BENCHMARK] HTML Parsing: %.2fms HtmlParser vs %.2fms HtmlExtractor (%d documents)%n",
+                parserNanos / 1e6, extractorNanos / 1e6, count);
+    }
+}
@@ -0,0 +1,73 @@
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.junit.jupiter.api.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalTrainerTest {
+
+    private ModelBundle trainedBundle(DataSet _old) {
+        MultiLayerNetwork network = TrainingFixtures.createNetwork();
+        PackedDataSetIterator batches = new PackedDataSetIterator(_old, 10, new Random(1));
+        for (int epoch = 0; epoch < 20; epoch++) {
+            network.fit(batches);
+            batches.reset();
+        }
+        DataSet replay = IncrementalTrainer.reservoir(null, 0, _old, 100, new Random(1));
+        return new ModelBundle(network, 4, "abc123", new String[]{"1", "2"}, replay, _old.numExamples());
+    }
+
+    @Test
+    void update_LearnsNewExamplesAndKeepsOldOnes() {
+        DataSet old = TrainingFixtures.createExamples(300, 0, 1);
+        DataSet drifted = TrainingFixtures.createExamples(60, 4, 2);
+        ModelBundle bundle = trainedBundle(old);
+        INDArray before = bundle.getNetwork().params().dup();
+
+        long start = System.nanoTime();
+        ModelBundle updated = new IncrementalTrainer().setEpochs(10).setReplayCapacity(100).update(bundle, drifted);
+        double millis = (System.nanoTime() - start) / 1e6;
+
+        assertEquals(before, bundle.getNetwork().params(), "The original bundle must not be modified");
+        assertEquals(4, updated.getEmbeddingSize());
+        assertEquals(360, updated.getReplaySeen());
+        assertEquals(100, updated.getReplay().numExamples());
+        assertTrue(TrainingFixtures.accuracy(updated.getNetwork(), TrainingFixtures.createExamples(200, 4, 3)) >= 0.85);
+        assertTrue(TrainingFixtures.accuracy(updated.getNetwork(), TrainingFixtures.createExamples(200, 0, 4)) >= 0.85);
+        System.out.printf("[BENCHMARK] Incremental Update: 60 new examples fine-tuned in %.1f ms%n", millis);
+    }
+
+    @Test
+    void update_RejectsWrongShape() {
+        ModelBundle bundle = trainedBundle(TrainingFixtures.createExamples(50, 0, 1));
+        DataSet wide = new DataSet(Nd4j.zeros(3, 5), Nd4j.zeros(3, 2));
+        DataSet threeClasses = new DataSet(Nd4j.zeros(3, 4), Nd4j.zeros(3, 3));
+        assertThrows(IllegalArgumentException.class, () -> new IncrementalTrainer().update(bundle, wide));
+        assertThrows(IllegalArgumentException.class, () -> new IncrementalTrainer().update(bundle, threeClasses));
+    }
+
+    @Test
+    void reservoir_IsBoundedAndUniform() {
+        Random random = new Random(7);
+        DataSet buffer = null;
+        long seen = 0;
+        for (int batch = 0; batch < 20; batch++) {
+            double[][] features = new double[100][1];
+            for (int i = 0; i < 100; i++) {
+                features[i][0] = seen + i;
+            }
+            buffer = IncrementalTrainer.reservoir(buffer, seen, new DataSet(Nd4j.create(features), Nd4j.zeros(100, 2)), 200, random);
+            seen += 100;
+            assertEquals(Math.min(200, seen), buffer.numExamples());
+        }
+        // A uniform sample of 0..1999 has mean ~1000; keeping only the first or last rows would not
+        double mean = buffer.getFeatures().meanNumber().doubleValue();
+        assertTrue(mean > 850 && mean < 1150, "mean index " + mean);
+    }
+}
@@ -58,7 +58,7 @@ public class IntegrationTest {
             String[] words = article.getNewsContent().split("\\s+");
             totalWords += words.length;
             for (String word : words) {
-                if (AdvancedNewsClassifier.getGloveByWord(word) != null) {
+                if (classifier.getGloveByWord(word) != null) {
                     coveredWords++;
                 }
             }
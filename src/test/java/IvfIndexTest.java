@@ -0,0 +1,83 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IvfIndexTest {
+    private static final int DIMENSION = 16;
+    private static final int ROWS = 5000;
+
+    @TempDir
+    Path tempDir;
+
+    private final BruteForceIndex exact = new BruteForceIndex(BruteForceIndexTest.randomRows(ROWS, DIMENSION, 7), DIMENSION);
+
+    @Test
+    void search_AllProbesIsExact() {
+        IvfIndex index = IvfIndex.build(exact, 20, 5, 42);
+        index = index.withProbes(index.getLists());
+        double[] query = BruteForceIndexTest.randomRows(1, DIMENSION, 8);
+        assertArrayEquals(exact.search(query, 10).getIds(), index.search(query, 10).getIds());
+        assertEquals(ROWS, index.size());
+    }
+
+    @Test
+    void search_Recall() {
+        IvfIndex index = IvfIndex.build(exact, 42);
+        index = index.withProbes(index.getLists() / 4);
+        int found = 0;
+        int queries = 50;
+        long searchNanos = 0;
+        for (int q = 0; q < queries; q++) {
+            double[] query = BruteForceIndexTest.randomRows(1, DIMENSION, 100 + q);
+            int[] expected = exact.search(query, 10).getIds();
+            long start = System.nanoTime();
+            int[] actual = index.search(query, 10).getIds();
+            searchNanos += System.nanoTime() - start;
+            for (int id : actual) {
+                for (int e : expected) {
+                    found += id == e ? 1 : 0;
+                }
+            }
+        }
+        double recall = found / (queries * 10.0);
+        System.out.printf("[BENCHMARK] IVF Search: recall@10 %.2f with %d/%d probes, %.3fms average per query%n",
+                recall, index.getProbes(), index.getLists(), searchNanos / 1e6 / queries);
+        assertTrue(recall > 0.5);
+    }
+
+    @Test
+    void saveAndLoad() throws IOException {
+        IvfIndex index = IvfIndex.build(exact, 30, 5, 42).withProbes(4);
+        Path file = tempDir.resolve("words.ivf");
+        index.save(file);
+        IvfIndex loaded = IvfIndex.load(file);
+        assertEquals(index.getLists(), loaded.getLists());
+        assertEquals(4, loaded.getProbes());
+        double[] query = BruteForceIndexTest.randomRows(1, DIMENSION, 9);
+        assertArrayEquals(index.search(query, 10).getIds(), loaded.search(query, 10).getIds());
+        assertArrayEquals(index.search(query, 10).getScores(), loaded.search(query, 10).getScores(), 0);
+    }
+
+    @Test
+    void withProbes_LeavesOriginalUnchanged() {
+        IvfIndex index = IvfIndex.build(exact, 20, 5, 42);
+        IvfIndex exhaustive = index.withProbes(index.getLists());
+        assertEquals(1, index.getProbes());
+        assertEquals(20, exhaustive.getProbes());
+        assertEquals(20, index.withProbes(1000).getProbes());
+    }
+
+    @Test
+    void build_RejectsEmptyIndex() {
+        BruteForceIndex empty = new BruteForceIndex(new double[0], DIMENSION);
+        assertThrows(IllegalArgumentException.class, () -> IvfIndex.build(empty, 4, 5, 42));
+        assertThrows(IllegalArgumentException.class, () -> IvfIndex.build(empty, 42));
+    }
+}
@@ -0,0 +1,44 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileMillis(50), 0);
+        assertEquals(0, histogram.getMeanMillis(), 0);
+    }
+
+    @Test
+    void percentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.recordNanos(millis * 1_000_000L);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500.5, histogram.getMeanMillis(), 1e-9);
+        assertEquals(500, histogram.getPercentileMillis(50), 500 * 0.07);
+        assertEquals(990, histogram.getPercentileMillis(99), 990 * 0.07);
+        assertTrue(histogram.getPercentileMillis(50) >= 500);
+        assertTrue(histogram.getPercentileMillis(100) >= 1000);
+    }
+
+    @Test
+    void bucketsAreContiguous() {
+        // Every value lands in a bucket whose upper bound covers it, and bucket indices never go backwards
+        int previous = 0;
+        for (long micros = 0; micros < 1 << 20; micros++) {
+            int bucket = LatencyHistogram.bucketOf(micros);
+            assertTrue(bucket >= previous && bucket <= previous + 1, "bucket jump at " + micros);
+            assertTrue(LatencyHistogram.upperBoundMicros(bucket) >= micros);
+            if (bucket > 0) {
+                assertTrue(LatencyHistogram.upperBoundMicros(bucket - 1) < micros);
+            }
+            previous = bucket;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LemmaCacheTest {
+
+    @Test
+    void getAndPut() {
+        LemmaCache cache = new LemmaCache(100);
+        assertNull(cache.get("symptoms"));
+        cache.put("symptoms", "symptom");
+        assertEquals("symptom", cache.get("symptoms"));
+        assertEquals(0, cache.getHits()); // lookups alone are not counted
+        cache.recordLookups(1, 3);
+        assertEquals(1, cache.getHits());
+        assertEquals(3, cache.getMisses());
+        assertEquals(0.25, cache.getHitRate(), 1e-9);
+        assertFalse(cache.isApproximate());
+        assertTrue(new LemmaCache(100, true).isApproximate());
+    }
+
+    @Test
+    void size_IsBounded() {
+        LemmaCache cache = new LemmaCache(100);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put("word" + i, "lemma" + i);
+            assertTrue(cache.size() <= 100);
+        }
+        assertEquals("lemma9999", cache.get("word9999"));
+        assertNull(cache.get("word0"));
+    }
+
+    @Test
+    void get_KeepsRecentlyUsedForms() {
+        LemmaCache cache = new LemmaCache(10);
+        cache.put("the", "the");
+        for (int i = 0; i < 50; i++) {
+            assertEquals("the", cache.get("the")); // promoted out of the old generation before it is dropped
+            cache.put("word" + i, "lemma" + i);
+        }
+    }
+
+    @Test
+    void constructor_RejectsTinyCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new LemmaCache(1));
+    }
+}
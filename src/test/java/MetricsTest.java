@@ -0,0 +1,102 @@
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void countersAndTimers() throws Exception {
+        Metrics metrics = new Metrics();
+        Metrics.Counter counter = metrics.counter("documents", "Documents seen");
+        assertSame(counter, metrics.counter("documents", "Documents seen"));
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    counter.increment();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(40_000, counter.get());
+
+        Metrics.Timer timer = metrics.timer("stage", "A stage");
+        List<long[]> garbage = new ArrayList<>();
+        Metrics.Sample sample = timer.start();
+        try {
+            garbage.add(new long[100_000]);
+            Thread.sleep(5);
+        } finally {
+            sample.stop();
+        }
+        assertEquals(1, timer.getCount());
+        assertTrue(timer.getTotalSeconds() >= 0.005);
+        assertTrue(timer.getAllocatedBytes() == 0 || timer.getAllocatedBytes() >= 800_000); // 0 when the JVM cannot count
+        assertEquals(1, garbage.size());
+    }
+
+    @Test
+    void exportsJsonAndPrometheus() throws IOException {
+        Metrics metrics = new Metrics();
+        metrics.counter("tokens", "Tokens").add(10);
+        metrics.gauge("oov_rate", "OOV share", () -> 0.25);
+        metrics.timer("predict_batch", "Forward pass").record(2_000_000, 64);
+
+        JsonObject json = metrics.toJson();
+        assertEquals(10, json.getAsJsonObject("counters").get("tokens").getAsLong());
+        assertEquals(0.25, json.getAsJsonObject("gauges").get("oov_rate").getAsDouble(), 0);
+        JsonObject timer = json.getAsJsonObject("timers").getAsJsonObject("predict_batch");
+        assertEquals(1, timer.get("count").getAsLong());
+        assertEquals(2.0, timer.get("meanMillis").getAsDouble(), 0);
+        assertEquals(64, timer.get("allocatedBytes").getAsLong());
+
+        String text = metrics.toPrometheus();
+        assertTrue(text.contains("# TYPE newsclassifier_tokens_total counter\nnewsclassifier_tokens_total 10\n"));
+        assertTrue(text.contains("newsclassifier_oov_rate 0.25\n"));
+        assertTrue(text.contains("# TYPE newsclassifier_predict_batch_seconds summary\n"));
+        assertTrue(text.contains("newsclassifier_predict_batch_seconds_count 1\n"));
+        assertTrue(text.contains("newsclassifier_predict_batch_allocated_bytes_total 64\n"));
+
+        Path jsonFile = tempDir.resolve("metrics.json");
+        metrics.writeTo(jsonFile);
+        assertEquals(json, new JsonParser().parse(Files.readString(jsonFile)).getAsJsonObject());
+        Path textFile = tempDir.resolve("metrics.prom");
+        metrics.writeTo(textFile);
+        assertEquals(text, new String(Files.readAllBytes(textFile), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void rejectsInvalidNames() {
+        assertThrows(IllegalArgumentException.class, () -> new Metrics().counter("Predict-Batch", "bad"));
+    }
+
+    @Test
+    void timerOverhead() {
+        Metrics.Timer timer = new Metrics().timer("overhead", "Empty block");
+        int samples = 200_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < samples; i++) {
+            timer.start().stop(); // empty block
+        }
+        double nanosPerSample = (System.nanoTime() - start) / (double) samples;
+        assertEquals(samples, timer.getCount());
+        System.out.printf("[BENCHMARK] Metrics Timer: %.0f ns per sample%n", nanosPerSample);
+        assertTrue(nanosPerSample < 5_000);
+    }
+}
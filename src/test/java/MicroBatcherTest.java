@@ -0,0 +1,107 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MicroBatcherTest {
+
+    // The title carries the class index the stub predictor returns
+    private static List<ArticlesEmbedding> articles(int... _classes) {
+        List<ArticlesEmbedding> articles = new ArrayList<>();
+        for (int value : _classes) {
+            articles.add(new ArticlesEmbedding(String.valueOf(value), "content", NewsArticles.DataType.Testing, "-1"));
+        }
+        return articles;
+    }
+
+    private static int[] echo(List<ArticlesEmbedding> _batch) {
+        int[] result = new int[_batch.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = Integer.parseInt(_batch.get(i).getNewsTitle());
+        }
+        return result;
+    }
+
+    @Test
+    void coalescesConcurrentRequests() throws Exception {
+        List<Integer> batchSizes = new ArrayList<>();
+        try (MicroBatcher batcher = new MicroBatcher(batch -> {
+            synchronized (batchSizes) {
+                batchSizes.add(batch.size());
+            }
+            return echo(batch);
+        }, 64, 200)) {
+            int requests = 16;
+            CountDownLatch ready = new CountDownLatch(1);
+            List<CompletableFuture<int[]>> futures = new ArrayList<>(Collections.nCopies(requests, null));
+            List<Thread> threads = new ArrayList<>();
+            for (int r = 0; r < requests; r++) {
+                int value = r;
+                Thread thread = new Thread(() -> {
+                    try {
+                        ready.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    synchronized (futures) {
+                        futures.set(value, batcher.submit(articles(value, value + 100)));
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            ready.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            for (int r = 0; r < requests; r++) {
+                assertArrayEquals(new int[]{r, r + 100}, futures.get(r).get(5, TimeUnit.SECONDS));
+            }
+            // All 32 articles arrive well inside one delay window, so they need far fewer than 16 predict calls
+            assertTrue(batcher.getBatchCount() < requests, "batches: " + batchSizes);
+            assertEquals(2.0 * requests / batcher.getBatchCount(), batcher.getAverageBatchSize(), 1e-9);
+            System.out.printf("[BENCHMARK] Micro-batching: %d requests served by %d predict calls%n", requests, batcher.getBatchCount());
+        }
+    }
+
+    @Test
+    void dispatchesFullBatchWithoutWaiting() throws Exception {
+        try (MicroBatcher batcher = new MicroBatcher(MicroBatcherTest::echo, 3, 60_000)) {
+            long start = System.nanoTime();
+            CompletableFuture<int[]> first = batcher.submit(articles(1, 2));
+            CompletableFuture<int[]> second = batcher.submit(articles(3));
+            assertArrayEquals(new int[]{1, 2}, first.get(5, TimeUnit.SECONDS));
+            assertArrayEquals(new int[]{3}, second.get(5, TimeUnit.SECONDS));
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+            assertEquals(1, batcher.getBatchCount());
+        }
+    }
+
+    @Test
+    void predictorFailureFailsTheWholeBatch() {
+        try (MicroBatcher batcher = new MicroBatcher(batch -> {
+            throw new IllegalStateException("model unavailable");
+        }, 8, 1)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> batcher.submit(articles(1)).get(5, TimeUnit.SECONDS));
+            assertEquals("model unavailable", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    void closedBatcherRejectsRequests() throws Exception {
+        MicroBatcher batcher = new MicroBatcher(MicroBatcherTest::echo, 8, 1);
+        assertArrayEquals(new int[0], batcher.submit(new ArrayList<>()).get());
+        batcher.close();
+        assertThrows(ExecutionException.class, () -> batcher.submit(articles(1)).get(5, TimeUnit.SECONDS));
+    }
+}
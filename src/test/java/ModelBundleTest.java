@@ -0,0 +1,112 @@
+import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
+import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
+import org.deeplearning4j.nn.conf.layers.OutputLayer;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.lossfunctions.LossFunctions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ModelBundleTest {
+    @TempDir
+    Path tempDir;
+
+    private MultiLayerNetwork createNetwork() {
+        MultiLayerConfiguration conf = new NeuralNetConfiguration.Builder()
+                .seed(42)
+                .list()
+                .layer(new OutputLayer.Builder(LossFunctions.LossFunction.HINGE)
+                        .activation(Activation.SOFTMAX)
+                        .nIn(4).nOut(2).build())
+                .build();
+        MultiLayerNetwork network = new MultiLayerNetwork(conf);
+        network.init();
+        return network;
+    }
+
+    @Test
+    void saveAndLoad() throws IOException {
+        MultiLayerNetwork network = createNetwork();
+        File file = tempDir.resolve("model.zip").toFile();
+        new ModelBundle(network, 4, "abc123", new String[]{"1", "2"}).save(file);
+
+        ModelBundle loaded = ModelBundle.load(file);
+        assertEquals(4, loaded.getEmbeddingSize());
+        assertEquals("abc123", loaded.getVocabularyFingerprint());
+        assertEquals(2, loaded.getNumberOfClasses());
+        assertEquals("2", loaded.getLabel(1));
+        assertEquals(network.params(), loaded.getNetwork().params());
+    }
+
+    @Test
+    void saveAndLoad_ReplayBuffer() throws IOException {
+        File file = tempDir.resolve("model.zip").toFile();
+        DataSet replay = new DataSet(Nd4j.create(new double[][]{{1, 2, 3, 4}, {5, 6, 7, 8}}), Nd4j.create(new double[][]{{0, 1}, {1, 0}}));
+        new ModelBundle(createNetwork(), 4, "abc123", new String[]{"1", "2"}, replay, 10).save(file);
+
+        ModelBundle loaded = ModelBundle.load(file);
+        assertEquals(10, loaded.getReplaySeen());
+        assertArrayEquals(replay.getFeatures().toDoubleMatrix(), loaded.getReplay().getFeatures().toDoubleMatrix());
+        assertArrayEquals(replay.getLabels().toDoubleMatrix(), loaded.getReplay().getLabels().toDoubleMatrix());
+        assertEquals(1, loaded.getClassIndex("2"));
+        assertThrows(IllegalArgumentException.class, () -> loaded.getClassIndex("3"));
+
+        // Bundles without a replay buffer still load
+        File plain = tempDir.resolve("plain.zip").toFile();
+        new ModelBundle(createNetwork(), 4, "abc123", new String[]{"1", "2"}).save(plain);
+        assertNull(ModelBundle.load(plain).getReplay());
+    }
+
+    @Test
+    void saveAndLoad_PoolingStrategy() throws IOException {
+        File file = tempDir.resolve("model.zip").toFile();
+        PoolingStrategy.TfIdf idf = new PoolingStrategy.TfIdf(new int[]{3, 8}, new float[]{1.5f, 2.5f}, 4);
+        new ModelBundle(createNetwork(), 4, "abc123", new String[]{"1", "2"}, null, 0, idf).save(file);
+
+        PoolingStrategy loaded = ModelBundle.load(file).getPooling();
+        assertEquals(idf.getSignature(), loaded.getSignature());
+        assertEquals(2.5f, ((PoolingStrategy.TfIdf) loaded).getWeight(8), 0);
+
+        new ModelBundle(createNetwork(), 4, "abc123", new String[]{"1", "2"}, null, 0, PoolingStrategy.MAX).save(file);
+        assertSame(PoolingStrategy.MAX, ModelBundle.load(file).getPooling());
+        new ModelBundle(createNetwork(), 4, "abc123", new String[]{"1", "2"}).save(file);
+        assertSame(PoolingStrategy.PER_WORD_MEAN, ModelBundle.load(file).getPooling());
+    }
+
+    @Test
+    void checkVocabulary() throws IOException {
+        ModelBundle bundle = new ModelBundle(createNetwork(), 4, "abc123", new String[]{"1", "2"});
+        bundle.checkVocabulary("abc123");
+        assertThrows(IOException.class, () -> bundle.checkVocabulary("other"));
+    }
+
+    @Test
+    void vocabularyFingerprint() {
+        ArrayEmbeddingTable table = new ArrayEmbeddingTable(2, 1);
+        table.put("hello", new double[]{1});
+        table.put("world", new double[]{2});
+        String all = ModelBundle.vocabularyFingerprint(table, row -> true);
+        assertEquals(all, ModelBundle.vocabularyFingerprint(table, row -> true));
+        assertEquals(16, all.length());
+        ArrayEmbeddingTable other = new ArrayEmbeddingTable(1, 1);
+        other.put("hello", new double[]{1});
+        assertEquals(ModelBundle.vocabularyFingerprint(other, row -> true), ModelBundle.vocabularyFingerprint(table, row -> row == 0));
+    }
+
+    @Test
+    void loadMissingFile() {
+        assertThrows(IOException.class, () -> ModelBundle.load(tempDir.resolve("missing.zip").toFile()));
+    }
+}
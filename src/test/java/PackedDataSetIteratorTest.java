@@ -0,0 +1,90 @@
+import org.junit.jupiter.api.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PackedDataSetIteratorTest {
+    private static final int EXAMPLES = 23;
+
+    // Row i holds [i, 10 * i]; label is i % 2
+    private INDArray features() {
+        INDArray features = Nd4j.create(EXAMPLES, 2);
+        for (int i = 0; i < EXAMPLES; i++) {
+            features.putScalar(i, 0, i);
+            features.putScalar(i, 1, 10 * i);
+        }
+        return features;
+    }
+
+    private INDArray labels() {
+        INDArray labels = Nd4j.zeros(EXAMPLES, 2);
+        for (int i = 0; i < EXAMPLES; i++) {
+            labels.putScalar(i, i % 2, 1);
+        }
+        return labels;
+    }
+
+    private List<Integer> epochRows(PackedDataSetIterator _iterator, List<Integer> _batchSizes) {
+        List<Integer> rows = new ArrayList<>();
+        while (_iterator.hasNext()) {
+            DataSet batch = _iterator.next();
+            _batchSizes.add(batch.numExamples());
+            for (int i = 0; i < batch.numExamples(); i++) {
+                int row = batch.getFeatures().getInt(i, 0);
+                assertEquals(10 * row, batch.getFeatures().getInt(i, 1));
+                assertEquals(1, batch.getLabels().getInt(i, row % 2));
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    void inOrderBatches() {
+        PackedDataSetIterator iterator = new PackedDataSetIterator(features(), labels(), 10, null);
+        List<Integer> batchSizes = new ArrayList<>();
+        List<Integer> rows = epochRows(iterator, batchSizes);
+        assertEquals(List.of(10, 10, 3), batchSizes);
+        for (int i = 0; i < EXAMPLES; i++) {
+            assertEquals(i, rows.get(i).intValue());
+        }
+        assertFalse(iterator.hasNext());
+        iterator.reset();
+        assertEquals(rows, epochRows(iterator, new ArrayList<>()));
+        assertEquals(2, iterator.inputColumns());
+        assertEquals(2, iterator.totalOutcomes());
+    }
+
+    @Test
+    void shuffledEpochsCoverEveryRowOnce() {
+        PackedDataSetIterator iterator = new PackedDataSetIterator(features(), labels(), 4, new Random(42));
+        List<Integer> first = epochRows(iterator, new ArrayList<>());
+        iterator.reset();
+        List<Integer> second = epochRows(iterator, new ArrayList<>());
+        assertNotEquals(first, second);
+        int[] sortedFirst = first.stream().mapToInt(Integer::intValue).sorted().toArray();
+        int[] sortedSecond = second.stream().mapToInt(Integer::intValue).sorted().toArray();
+        int[] expected = new int[EXAMPLES];
+        for (int i = 0; i < EXAMPLES; i++) {
+            expected[i] = i;
+        }
+        assertArrayEquals(expected, sortedFirst);
+        assertArrayEquals(expected, sortedSecond);
+    }
+
+    @Test
+    void mismatchedRowsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PackedDataSetIterator(features(), Nd4j.zeros(3, 2), 4, null));
+    }
+}
@@ -0,0 +1,48 @@
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelTrainerTest {
+
+    @Test
+    void fit_ParallelWorkersLearn() throws InterruptedException {
+        ParallelTrainer trainer = new ParallelTrainer().setWorkers(3).setBatchSize(10).setMaxEpochs(30).setPatience(30);
+        MultiLayerNetwork network = trainer.fit(TrainingFixtures.createNetwork(), TrainingFixtures.createExamples(300, 0, 1).asList());
+        assertTrue(TrainingFixtures.accuracy(network, TrainingFixtures.createExamples(200, 0, 2)) > 0.9);
+        assertEquals(30, trainer.getEpochStats().size());
+        for (ParallelTrainer.EpochStats stats : trainer.getEpochStats()) {
+            assertTrue(stats.getSamplesPerSecond() > 0);
+        }
+        System.out.printf("[BENCHMARK] Parallel Training: %.0f samples/sec in the last epoch (3 workers)%n",
+                trainer.getEpochStats().get(29).getSamplesPerSecond());
+    }
+
+    @Test
+    void fit_EarlyStoppingKeepsBestScore() throws InterruptedException {
+        ParallelTrainer trainer = new ParallelTrainer().setWorkers(2).setMaxEpochs(500).setPatience(3).setValidationFraction(0.25);
+        MultiLayerNetwork network = trainer.fit(TrainingFixtures.createNetwork(), TrainingFixtures.createExamples(200, 0, 3).asList());
+        List<ParallelTrainer.EpochStats> stats = trainer.getEpochStats();
+        assertTrue(stats.size() < 500);
+
+        double best = Double.POSITIVE_INFINITY;
+        for (ParallelTrainer.EpochStats epoch : stats) {
+            best = Math.min(best, epoch.getScore());
+        }
+        // The last epochs were no better than the restored best
+        for (int i = stats.size() - 3; i < stats.size(); i++) {
+            assertTrue(stats.get(i).getScore() >= best);
+        }
+        assertTrue(TrainingFixtures.accuracy(network, TrainingFixtures.createExamples(200, 0, 4)) > 0.9);
+    }
+
+    @Test
+    void fit_SingleWorkerWithoutValidation() throws InterruptedException {
+        ParallelTrainer trainer = new ParallelTrainer().setWorkers(1).setMaxEpochs(5).setValidationFraction(0);
+        trainer.fit(TrainingFixtures.createNetwork(), TrainingFixtures.createExamples(50, 0, 5).asList());
+        assertEquals(5, trainer.getEpochStats().size());
+    }
+}
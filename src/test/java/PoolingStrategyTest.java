@@ -0,0 +1,63 @@
+import org.junit.jupiter.api.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PoolingStrategyTest {
+    private static final int NF = EmbeddingTable.NOT_FOUND;
+
+    private EmbeddingTable createTable() {
+        ArrayEmbeddingTable table = new ArrayEmbeddingTable(3, 2);
+        table.put("virus", new double[]{1, 4});
+        table.put("vaccine", new double[]{3, -2});
+        table.put("market", new double[]{-1, 0});
+        return table;
+    }
+
+    private double[] pool(PoolingStrategy _strategy, int[] _ids, int _width) {
+        INDArray row = Nd4j.zeros(1, _width);
+        _strategy.pool(_ids, createTable(), row, new double[4]);
+        return row.toDoubleVector();
+    }
+
+    @Test
+    void perWordMean() {
+        assertFalse(PoolingStrategy.PER_WORD_MEAN.isFixedWidth());
+        assertArrayEquals(new double[]{2.5, 0.5, 0, 0}, pool(PoolingStrategy.PER_WORD_MEAN, new int[]{0, NF, 1}, 4), 1e-6);
+        assertArrayEquals(new double[]{2.5}, pool(PoolingStrategy.PER_WORD_MEAN, new int[]{0, 1, 2}, 1), 1e-6);
+    }
+
+    @Test
+    void meanOfVectors() {
+        assertTrue(PoolingStrategy.MEAN_OF_VECTORS.isFixedWidth());
+        assertArrayEquals(new double[]{2, 1}, pool(PoolingStrategy.MEAN_OF_VECTORS, new int[]{0, NF, 1}, 2), 1e-6);
+        assertArrayEquals(new double[]{0, 0}, pool(PoolingStrategy.MEAN_OF_VECTORS, new int[]{NF}, 2), 0);
+    }
+
+    @Test
+    void max() {
+        assertArrayEquals(new double[]{3, 4}, pool(PoolingStrategy.MAX, new int[]{0, 1, 2}, 2), 1e-6);
+        assertArrayEquals(new double[]{-1, 0}, pool(PoolingStrategy.MAX, new int[]{2}, 2), 1e-6);
+        assertArrayEquals(new double[]{0, 0}, pool(PoolingStrategy.MAX, new int[0], 2), 0);
+    }
+
+    @Test
+    void tfIdf() {
+        PoolingStrategy.TfIdf idf = new PoolingStrategy.TfIdf(new int[]{0, 1}, new float[]{1, 3}, 5);
+        assertEquals(3, idf.getWeight(1), 0);
+        assertEquals(5, idf.getWeight(2), 0);
+        // (1 * virus + 3 * vaccine) / 4
+        assertArrayEquals(new double[]{2.5, -0.5}, pool(idf, new int[]{0, 1}, 2), 1e-6);
+        assertNotEquals(idf.getSignature(), new PoolingStrategy.TfIdf(new int[]{0, 1}, new float[]{1, 2}, 5).getSignature());
+        assertThrows(IllegalArgumentException.class, () -> new PoolingStrategy.TfIdf(new int[]{1, 0}, new float[]{1, 1}, 1));
+    }
+
+    @Test
+    void forName() {
+        assertSame(PoolingStrategy.MAX, PoolingStrategy.forName("max"));
+        assertSame(PoolingStrategy.PER_WORD_MEAN, PoolingStrategy.forName("per-word-mean"));
+        assertEquals("tfidf", PoolingStrategy.forName("tfidf").getName());
+        assertThrows(IllegalArgumentException.class, () -> PoolingStrategy.forName("median"));
+    }
+}
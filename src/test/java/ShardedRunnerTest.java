@@ -0,0 +1,124 @@
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedRunnerTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void partition_RoundRobinOverSortedFiles() throws IOException {
+        Path input = Files.createDirectories(tempDir.resolve("input"));
+        for (String name : new String[]{"c.htm", "a.htm", "e.html", "b.htm", "d.htm", "notes.txt", ".hidden.htm"}) {
+            Files.writeString(input.resolve(name), "<title>x</title>");
+        }
+        Path work = tempDir.resolve("work");
+        assertEquals(2, ShardedRunner.partition(input, 2, work));
+        assertEquals(List.of(input.resolve("a.htm").toAbsolutePath().toString(), input.resolve("c.htm").toAbsolutePath().toString(),
+                input.resolve("e.html").toAbsolutePath().toString()), Files.readAllLines(ShardedRunner.filesList(work, 0)));
+        assertEquals(List.of(input.resolve("b.htm").toAbsolutePath().toString(), input.resolve("d.htm").toAbsolutePath().toString()),
+                Files.readAllLines(ShardedRunner.filesList(work, 1)));
+        assertEquals(5, ShardedRunner.partition(input, 16, work)); // never more shards than files
+
+        // Results of the 5-shard run must not survive a repartition into 2
+        for (int shard = 0; shard < 5; shard++) {
+            Files.writeString(ShardedRunner.resultFile(work, shard), "{}");
+        }
+        assertEquals(2, ShardedRunner.partition(input, 2, work));
+        for (int shard = 0; shard < 5; shard++) {
+            assertFalse(Files.exists(ShardedRunner.resultFile(work, shard)), "stale shard-" + shard + ".json");
+            assertEquals(shard < 2, Files.exists(ShardedRunner.filesList(work, shard)));
+        }
+        assertEquals(2, ShardedRunner.countShards(work));
+        Files.writeString(ShardedRunner.resultFile(work, 0), "{}");
+        assertEquals(2, ShardedRunner.countShards(work)); // shard 1 missing: merge reports it rather than merging one
+    }
+
+    private void writeShard(Path _work, int _shard, String[] _files, long[] _histogram, long _tokens) throws IOException {
+        JsonArray results = new JsonArray();
+        for (String file : _files) {
+            JsonObject entry = new JsonObject();
+            entry.addProperty("file", file);
+            entry.addProperty("title", file);
+            entry.addProperty("label", "1");
+            entry.addProperty("classIndex", 0);
+            results.add(entry);
+        }
+        JsonArray histogram = new JsonArray();
+        for (long count : _histogram) {
+            histogram.add(count);
+        }
+        JsonObject counters = new JsonObject();
+        counters.addProperty("tokens", _tokens);
+        JsonObject shard = new JsonObject();
+        shard.addProperty("shard", _shard);
+        shard.add("results", results);
+        shard.add("knownWordHistogram", histogram);
+        shard.add("counters", counters);
+        Files.writeString(ShardedRunner.resultFile(_work, _shard), shard.toString());
+    }
+
+    @Test
+    void merge_SortsResultsAndAddsHistograms() throws IOException {
+        writeShard(tempDir, 0, new String[]{"/n/a.htm", "/n/c.htm"}, new long[]{0, 0, 1, 0, 1}, 10); // counts 2 and 4
+        writeShard(tempDir, 1, new String[]{"/n/b.htm"}, new long[]{0, 0, 0, 1}, 5); // count 3
+        JsonObject merged = ShardedRunner.merge(tempDir, 2);
+
+        assertEquals(3, merged.get("articles").getAsInt());
+        assertEquals("/n/b.htm", merged.getAsJsonArray("results").get(1).getAsJsonObject().get("file").getAsString());
+        EmbeddingSizeEstimator expected = new EmbeddingSizeEstimator();
+        expected.add(2);
+        expected.add(4);
+        expected.add(3);
+        assertEquals(expected.getEmbeddingSize(), merged.get("embeddingSize").getAsInt());
+        assertEquals(5, merged.getAsJsonArray("knownWordHistogram").size());
+        assertEquals(15, merged.getAsJsonObject("counters").get("tokens").getAsLong());
+        assertEquals("3 articles from 2 shards (label 1: 3)", ShardedRunner.summary(merged));
+
+        Files.delete(ShardedRunner.resultFile(tempDir, 1));
+        assertThrows(IOException.class, () -> ShardedRunner.merge(tempDir, 2));
+    }
+
+    @Test
+    void runWorkers_MatchesSingleProcess() throws Exception {
+        AdvancedNewsClassifier classifier = new AdvancedNewsClassifier();
+        classifier.embeddingSize = classifier.calculateEmbeddingSize(classifier.getArticleEmbeddings());
+        classifier.populateEmbedding();
+        classifier.setNeuralNetwork(classifier.buildNeuralNetwork(2));
+        File model = tempDir.resolve("model.zip").toFile();
+        ModelBundle bundle = classifier.saveModel(model, 2);
+
+        URL newsUrl = ShardedRunnerTest.class.getClassLoader().getResource("News");
+        Path news = Paths.get(newsUrl.toURI());
+        Path work = tempDir.resolve("work");
+        int shards = ShardedRunner.partition(news, 3, work);
+        long start = System.nanoTime();
+        ShardedRunner.runWorkers(model.toPath(), work, shards, 1);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        JsonArray sharded = ShardedRunner.merge(work, shards).getAsJsonArray("results");
+
+        List<Path> files = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            for (String line : Files.readAllLines(ShardedRunner.filesList(work, shard), StandardCharsets.UTF_8)) {
+                files.add(Paths.get(line));
+            }
+        }
+        files.sort((a, b) -> a.toString().compareTo(b.toString()));
+        JsonArray single = ShardWorker.run(classifier, bundle, files, 0).getAsJsonArray("results");
+        assertEquals(single, sharded);
+        System.out.printf("[BENCHMARK] Sharded Run: %d articles in %d worker processes, %.1fs%n", sharded.size(), shards, seconds);
+    }
+}
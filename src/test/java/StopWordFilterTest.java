@@ -0,0 +1,77 @@
+import org.apache.commons.lang3.time.StopWatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StopWordFilterTest {
+    @TempDir
+    Path tempDir;
+
+    private StopWatch stopWatch = new StopWatch();
+
+    @Test
+    void matchesLinearScan() {
+        String[] candidates = {"the", "THE", "The", "them", "th", "", "a", "an", "and", "android", "your", "yours", "covid", "Said", "twas", "tis"};
+        for (String candidate : candidates) {
+            boolean expected = false;
+            for (String stopWord : Toolkit.STOPWORDS) {
+                if (candidate.equalsIgnoreCase(stopWord)) {
+                    expected = true;
+                    break;
+                }
+            }
+            assertEquals(expected, Toolkit.STOPWORD_FILTER.isStopWord(candidate), candidate);
+        }
+    }
+
+    @Test
+    void everyStopWordIsFound() {
+        for (String stopWord : Toolkit.STOPWORDS) {
+            assertTrue(Toolkit.STOPWORD_FILTER.isStopWord(stopWord), stopWord);
+            assertTrue(Toolkit.STOPWORD_FILTER.isStopWord(stopWord.toUpperCase()), stopWord);
+        }
+        assertEquals(Toolkit.STOPWORDS.length, Toolkit.STOPWORD_FILTER.size());
+    }
+
+    @Test
+    void customLists() throws IOException {
+        StopWordFilter german = new StopWordFilter(new String[]{"der", "die", "das", "über"});
+        assertTrue(german.isStopWord("Über"));
+        assertTrue(german.isStopWord(new StringBuilder("DAS")));
+        assertFalse(german.isStopWord("the"));
+
+        Path file = tempDir.resolve("stopwords.txt");
+        Files.writeString(file, "# customer list\nacme\n\n  widget  \n");
+        StopWordFilter fromFile = StopWordFilter.fromFile(file);
+        assertEquals(2, fromFile.size());
+        assertTrue(fromFile.isStopWord("Widget"));
+        assertFalse(fromFile.isStopWord("customer"));
+
+        StopWordFilter empty = new StopWordFilter(new String[0]);
+        assertFalse(empty.isStopWord("the"));
+        assertFalse(empty.isStopWord(""));
+    }
+
+    @Test
+    void isStopWord_Performance() {
+        String[] words = {"coronavirus", "the", "disease", "and", "symptom", "with", "vaccine", "your"};
+        stopWatch.start();
+        int count = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            if (Toolkit.STOPWORD_FILTER.isStopWord(words[i % words.length])) {
+                count++;
+            }
+        }
+        stopWatch.stop();
+        System.out.printf("[BENCHMARK] Stopword Filter: %dms for 1,000,000 checks%n", stopWatch.getTime());
+        assertEquals(500_000, count);
+        assertTrue(stopWatch.getTime() < 1000);
+    }
+}
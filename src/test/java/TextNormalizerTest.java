@@ -0,0 +1,71 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TextNormalizerTest {
+    private static final String ALPHABET = "abcXYZ019 \t\n\r-.,'\u00e9\u00c9\u0130\u212a\u2011\u00a0\u3000\ud83d\ude00";
+
+    // The chain clean() replaces
+    private static String legacyClean(String _content) {
+        StringBuilder sbContent = new StringBuilder();
+        for (char c : _content.toLowerCase().toCharArray()) {
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || Character.isWhitespace(c)) {
+                sbContent.append(c);
+            }
+        }
+        return sbContent.toString().trim();
+    }
+
+    private static String[] legacyTokens(String _text) {
+        return Arrays.stream(_text.split("\\s+")).filter(token -> !token.isEmpty()).toArray(String[]::new);
+    }
+
+    private static String randomText(Random _random, int _length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < _length; i++) {
+            text.append(ALPHABET.charAt(_random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+
+    @Test
+    void clean_SameTokensAsLegacyChain() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            String text = randomText(random, random.nextInt(60));
+            String cleaned = TextNormalizer.clean(text);
+            assertArrayEquals(legacyTokens(legacyClean(text)), TextNormalizer.tokenize(cleaned), text);
+            assertEquals(String.join(" ", TextNormalizer.tokenize(cleaned)), cleaned);
+        }
+        assertEquals("covid19 is here", TextNormalizer.clean("  COVID-19\n\nis   HERE! "));
+    }
+
+    @Test
+    void tokenize_MatchesRegexSplit() {
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            String text = randomText(random, random.nextInt(60));
+            assertArrayEquals(legacyTokens(text), TextNormalizer.tokenize(text), text);
+        }
+        assertEquals(0, TextNormalizer.tokenize("").length);
+        assertEquals(0, TextNormalizer.tokenize(" \t ").length);
+    }
+
+    @Test
+    void clean_LongArticleMatchesLegacyChain() {
+        // Timing lives in the JMH TextProcessingBenchmark (normaliseTokens vs legacyNormaliseTokens)
+        StringBuilder article = new StringBuilder();
+        Random random = new Random(1);
+        while (article.length() < 20_000) {
+            article.append(randomText(random, 8)).append("Some News Text, with PUNCTUATION. ");
+        }
+        String text = article.toString();
+        String cleaned = TextNormalizer.clean(text);
+        assertEquals(legacyClean(text).replaceAll("\\s+", " "), cleaned);
+        assertArrayEquals(legacyTokens(legacyClean(text)), TextNormalizer.tokenize(cleaned));
+    }
+}
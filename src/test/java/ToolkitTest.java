@@ -1,10 +1,22 @@
 import org.apache.commons.lang3.time.StopWatch;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
@@ -24,15 +36,15 @@ class ToolkitTest {
     void loadGLOVE() throws IOException {
         Toolkit toolkit = new Toolkit();
         toolkit.loadGlove();
-        assertEquals(38534, Toolkit.getListVocabulary().size());
-        assertEquals(38534, Toolkit.getlistVectors().size());
-        assertEquals(50, Toolkit.getlistVectors().get(0).length);
-        assertEquals("abacus", Toolkit.getListVocabulary().get(0));
-        assertEquals("0.91020,-0.22416,0.37178,0.81798,0.36196,-0.22736,0.18227,-0.65806,-0.68216,0.55412,-0.00682,0.51684,-0.22591,0.62869,-0.31783,-0.04545,-0.29130,-0.31577,-0.09752,0.23169,0.78351,-0.49638,-0.29270,-0.44133,-0.66269,0.50245,-0.35885,-0.12590,-1.00160,-0.74963,-0.23634,-0.52698,0.64290,-0.17031,-0.41484,-0.66797,-0.18608,-0.36538,0.72661,0.27342,0.35811,-0.35126,-0.09303,0.99202,-0.38579,-0.73833,0.42013,1.36120,0.09186,0.34126", doubleToString(Toolkit.getlistVectors().get(0)));
-        assertEquals("diskette", Toolkit.getListVocabulary().get(10000));
-        assertEquals("-0.49209,-0.76410,1.85160,-0.27413,-0.07538,-0.09049,-0.02073,-1.00880,0.18535,1.03220,-0.52850,-0.54231,0.15589,0.12521,-0.01730,-0.24813,-1.04610,0.60019,1.04710,-0.05143,-0.17494,-0.81117,-0.23783,-0.00254,0.34878,0.04589,0.32036,0.63555,0.75448,-0.73136,0.08431,-1.28650,-0.22761,0.83771,0.66784,0.97248,0.11451,0.20307,-0.06278,-0.53176,0.76212,-0.40505,-1.01780,0.43932,0.03875,-0.31888,1.61950,0.41650,-0.09802,-0.74725", doubleToString(Toolkit.getlistVectors().get(10000)));
-        assertEquals("zymogen", Toolkit.getListVocabulary().get(38533));
-        assertEquals("-0.34302,-0.76724,0.13492,-0.00597,0.48681,-0.07070,0.51518,0.87200,0.05105,0.85437,0.78227,0.09527,0.76955,0.98725,-0.67563,0.26199,-0.23906,0.03835,0.28952,0.66234,-0.96697,-1.25970,0.59936,0.82306,-0.68298,0.91953,0.01823,0.16589,0.32776,0.92470,-0.97598,-0.64046,0.09786,-0.23237,0.49565,0.33539,0.18704,0.06581,0.19750,-0.21133,0.44679,-0.19354,-1.86070,0.76211,-0.93576,0.35687,0.26919,0.50355,-0.08195,0.37539", doubleToString(Toolkit.getlistVectors().get(38533)));
+        assertEquals(38534, toolkit.getListVocabulary().size());
+        assertEquals(38534, toolkit.getlistVectors().size());
+        assertEquals(50, toolkit.getlistVectors().get(0).length);
+        assertEquals("abacus", toolkit.getListVocabulary().get(0));
+        assertEquals("0.91020,-0.22416,0.37178,0.81798,0.36196,-0.22736,0.18227,-0.65806,-0.68216,0.55412,-0.00682,0.51684,-0.22591,0.62869,-0.31783,-0.04545,-0.29130,-0.31577,-0.09752,0.23169,0.78351,-0.49638,-0.29270,-0.44133,-0.66269,0.50245,-0.35885,-0.12590,-1.00160,-0.74963,-0.23634,-0.52698,0.64290,-0.17031,-0.41484,-0.66797,-0.18608,-0.36538,0.72661,0.27342,0.35811,-0.35126,-0.09303,0.99202,-0.38579,-0.73833,0.42013,1.36120,0.09186,0.34126", doubleToString(toolkit.getlistVectors().get(0)));
+        assertEquals("diskette", toolkit.getListVocabulary().get(10000));
+        assertEquals("-0.49209,-0.76410,1.85160,-0.27413,-0.07538,-0.09049,-0.02073,-1.00880,0.18535,1.03220,-0.52850,-0.54231,0.15589,0.12521,-0.01730,-0.24813,-1.04610,0.60019,1.04710,-0.05143,-0.17494,-0.81117,-0.23783,-0.00254,0.34878,0.04589,0.32036,0.63555,0.75448,-0.73136,0.08431,-1.28650,-0.22761,0.83771,0.66784,0.97248,0.11451,0.20307,-0.06278,-0.53176,0.76212,-0.40505,-1.01780,0.43932,0.03875,-0.31888,1.61950,0.41650,-0.09802,-0.74725", doubleToString(toolkit.getlistVectors().get(10000)));
+        assertEquals("zymogen", toolkit.getListVocabulary().get(38533));
+        assertEquals("-0.34302,-0.76724,0.13492,-0.00597,0.48681,-0.07070,0.51518,0.87200,0.05105,0.85437,0.78227,0.09527,0.76955,0.98725,-0.67563,0.26199,-0.23906,0.03835,0.28952,0.66234,-0.96697,-1.25970,0.59936,0.82306,-0.68298,0.91953,0.01823,0.16589,0.32776,0.92470,-0.97598,-0.64046,0.09786,-0.23237,0.49565,0.33539,0.18704,0.06581,0.19750,-0.21133,0.44679,-0.19354,-1.86070,0.76211,-0.93576,0.35687,0.26919,0.50355,-0.08195,0.37539", doubleToString(toolkit.getlistVectors().get(38533)));
 
         long totalTime = 0;
 
@@ -45,7 +57,7 @@ class ToolkitTest {
         }
 
         long avgTime = totalTime / 20;
-        int vocabularySize = Toolkit.getListVocabulary().size();
+        int vocabularySize = toolkit.getListVocabulary().size();
         System.out.printf("[BENCHMARK] GloVe Loading: %dms average (%,d vocabulary terms)%n", avgTime, vocabularySize);
         assertTrue(avgTime < 280);
     }
@@ -75,4 +87,103 @@ class ToolkitTest {
         assertTrue(avgTime < 30);
     }
 
-}
\ No newline at end of file
+    @Test
+    void streamNews() {
+        Toolkit toolkit = new Toolkit();
+        List<String> expectedTitles = new ArrayList<>();
+        for (NewsArticles news : toolkit.loadNews()) {
+            expectedTitles.add(news.getNewsTitle());
+        }
+
+        List<String> streamedTitles = new ArrayList<>();
+        try (NewsStream stream = toolkit.streamNews(4)) {
+            while (stream.hasNext()) {
+                streamedTitles.add(stream.next().getNewsTitle());
+            }
+        }
+        assertEquals(32, streamedTitles.size());
+        assertTrue(streamedTitles.containsAll(expectedTitles));
+    }
+
+    @Test
+    void streamNews_CloseEarly() {
+        Toolkit toolkit = new Toolkit();
+        NewsStream stream = toolkit.streamNews(1);
+        assertTrue(stream.hasNext());
+        stream.next();
+        stream.close();
+        assertFalse(stream.hasNext());
+    }
+
+    // Closing interrupts the reader; when that lands in file I/O the stream must stop, not log every remaining file
+    @Test
+    void streamNews_CloseMidRead() throws Exception {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(Paths.get(Toolkit.class.getClassLoader().getResource("News").toURI()))) {
+            listing.filter(Toolkit::isNewsFile).forEach(files::add);
+        }
+        NewsStream[] stream = new NewsStream[1];
+        CountDownLatch opened = new CountDownLatch(1);
+        CountDownLatch sourceClosed = new CountDownLatch(1);
+        AtomicInteger visited = new AtomicInteger();
+        ClosingFiles source = new ClosingFiles(files, sourceClosed, () -> {
+            // Runs on the reader thread just before it opens the third file
+            if (visited.incrementAndGet() == 3) {
+                try {
+                    opened.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                stream[0].close();
+            }
+        });
+
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream errContent = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(errContent));
+        try {
+            stream[0] = new NewsStream(source, files.size());
+            opened.countDown();
+            assertTrue(sourceClosed.await(10, TimeUnit.SECONDS));
+        } finally {
+            System.setErr(originalErr);
+        }
+        assertEquals(3, visited.get());
+        assertFalse(errContent.toString().contains("Error reading file"), errContent.toString());
+        assertFalse(stream[0].hasNext());
+    }
+
+    private static final class ClosingFiles implements Iterable<Path>, AutoCloseable {
+        private final List<Path> files;
+        private final CountDownLatch closed;
+        private final Runnable onNext;
+
+        private ClosingFiles(List<Path> _files, CountDownLatch _closed, Runnable _onNext) {
+            files = _files;
+            closed = _closed;
+            onNext = _onNext;
+        }
+
+        @Override
+        public Iterator<Path> iterator() {
+            Iterator<Path> iterator = files.iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Path next() {
+                    onNext.run();
+                    return iterator.next();
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TopKTest {
+
+    @Test
+    void keepsHighestScoresBestFirst() {
+        TopK topK = new TopK(3);
+        double[] scores = {0.1, 0.9, -0.5, 0.7, 0.3, 0.8};
+        for (int id = 0; id < scores.length; id++) {
+            topK.offer(id, scores[id]);
+        }
+        assertEquals(3, topK.size());
+        assertArrayEquals(new int[]{1, 5, 3}, topK.getIds());
+        assertArrayEquals(new double[]{0.9, 0.8, 0.7}, topK.getScores(), 0);
+        assertEquals(0.7, topK.threshold(), 0);
+    }
+
+    @Test
+    void tiesPreferLowerId() {
+        TopK topK = new TopK(2);
+        topK.offer(7, 1.0);
+        topK.offer(3, 1.0);
+        topK.offer(5, 1.0);
+        assertArrayEquals(new int[]{3, 5}, topK.getIds());
+    }
+
+    @Test
+    void fewerCandidatesThanK() {
+        TopK topK = new TopK(5);
+        topK.offer(4, 0.5);
+        assertArrayEquals(new int[]{4}, topK.getIds());
+        assertEquals(Double.NEGATIVE_INFINITY, topK.threshold(), 0);
+        assertThrows(IllegalArgumentException.class, () -> new TopK(0));
+    }
+}
@@ -0,0 +1,60 @@
+import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
+import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
+import org.deeplearning4j.nn.conf.layers.DenseLayer;
+import org.deeplearning4j.nn.conf.layers.OutputLayer;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.learning.config.Adam;
+import org.nd4j.linalg.lossfunctions.LossFunctions;
+
+import java.util.Random;
+
+// Small network and synthetic data shared by the trainer tests
+final class TrainingFixtures {
+
+    private TrainingFixtures() {
+    }
+
+    // 4 -> 8 -> 2, seeded so runs are repeatable
+    static MultiLayerNetwork createNetwork() {
+        MultiLayerConfiguration conf = new NeuralNetConfiguration.Builder()
+                .seed(42)
+                .updater(new Adam(0.05))
+                .list()
+                .layer(new DenseLayer.Builder().nIn(4).nOut(8).activation(Activation.RELU).build())
+                .layer(new OutputLayer.Builder(LossFunctions.LossFunction.MCXENT)
+                        .activation(Activation.SOFTMAX)
+                        .nIn(8).nOut(2).build())
+                .build();
+        MultiLayerNetwork network = new MultiLayerNetwork(conf);
+        network.init();
+        return network;
+    }
+
+    // Linearly separable: class 1 when the first feature is positive; _shift moves the cluster along the last feature
+    static DataSet createExamples(int _count, double _shift, long _seed) {
+        Random random = new Random(_seed);
+        double[][] features = new double[_count][4];
+        double[][] labels = new double[_count][2];
+        for (int i = 0; i < _count; i++) {
+            for (int j = 0; j < 4; j++) {
+                features[i][j] = random.nextGaussian();
+            }
+            features[i][3] += _shift;
+            labels[i][features[i][0] > 0 ? 1 : 0] = 1;
+        }
+        return new DataSet(Nd4j.create(features), Nd4j.create(labels));
+    }
+
+    static double accuracy(MultiLayerNetwork _network, DataSet _examples) {
+        int[] predicted = _network.predict(_examples.getFeatures());
+        int[] expected = _examples.getLabels().argMax(1).toIntVector();
+        int correct = 0;
+        for (int i = 0; i < predicted.length; i++) {
+            correct += predicted[i] == expected[i] ? 1 : 0;
+        }
+        return correct / (double) predicted.length;
+    }
+}
@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VectorMathTest {
+    private final Random random = new Random(42);
+
+    private double[] randomVector(int _length) {
+        double[] vector = new double[_length];
+        for (int i = 0; i < _length; i++) {
+            vector[i] = random.nextGaussian();
+        }
+        return vector;
+    }
+
+    @Test
+    void matchesVectorReference() {
+        int[][] lengths = {{50, 50}, {1, 1}, {7, 7}, {50, 47}, {3, 8}, {0, 5}};
+        for (int[] pair : lengths) {
+            double[] a = randomVector(pair[0]);
+            double[] b = randomVector(pair[1]);
+            Vector va = new Vector(a.clone());
+            Vector vb = new Vector(b.clone());
+
+            assertEquals(va.dotProduct(vb), VectorMath.dotProduct(a, b), 1e-9);
+            assertEquals(va.cosineSimilarity(vb), VectorMath.cosineSimilarity(a, b), 1e-9);
+
+            double[] sum = new double[Math.max(a.length, b.length)];
+            VectorMath.add(a, b, sum);
+            assertArrayEquals(va.add(vb).getAllElements(), sum, 0);
+            double[] difference = new double[sum.length];
+            VectorMath.subtraction(a, b, difference);
+            assertArrayEquals(va.subtraction(vb).getAllElements(), difference, 0);
+        }
+    }
+
+    @Test
+    void cosineSimilarity_ZeroVectorIsNaN() {
+        assertTrue(Double.isNaN(VectorMath.cosineSimilarity(new double[3], new double[]{1, 2, 3})));
+        assertTrue(Double.isNaN(new Vector(new double[3]).cosineSimilarity(new Vector(new double[]{1, 2, 3}))));
+    }
+
+    @Test
+    void dotProduct_Slices() {
+        double[] matrix = {1, 2, 3, 4, 5, 6};
+        assertEquals(1 * 4 + 2 * 5 + 3 * 6, VectorMath.dotProduct(matrix, 0, matrix, 3, 3), 0);
+        assertEquals(14, VectorMath.squaredNorm(new double[]{1, 2, 3}), 0);
+    }
+
+    @Test
+    void inPlaceOperations() {
+        double[] accumulator = {1, 2, 3};
+        VectorMath.addInPlace(accumulator, new double[]{1, 1, 1});
+        assertArrayEquals(new double[]{2, 3, 4}, accumulator, 0);
+        VectorMath.subtractInPlace(accumulator, new double[]{2, 2, 2});
+        assertArrayEquals(new double[]{0, 1, 2}, accumulator, 0);
+        VectorMath.axpy(0.5, new double[]{2, 4, 6}, accumulator);
+        assertArrayEquals(new double[]{1, 3, 5}, accumulator, 0);
+        VectorMath.scaleInPlace(accumulator, 2);
+        assertArrayEquals(new double[]{2, 6, 10}, accumulator, 0);
+
+        // Aliasing the destination with an operand is allowed
+        VectorMath.add(accumulator, accumulator, accumulator);
+        assertArrayEquals(new double[]{4, 12, 20}, accumulator, 0);
+    }
+
+    @Test
+    void mismatchedLengthsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> VectorMath.addInPlace(new double[2], new double[3]));
+        assertThrows(IllegalArgumentException.class, () -> VectorMath.add(new double[2], new double[3], new double[2]));
+    }
+}